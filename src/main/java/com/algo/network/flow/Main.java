@@ -6,7 +6,10 @@
  */
 package com.algo.network.flow;
 
+import com.algo.network.flow.algorithm.FlowVerifier;
 import com.algo.network.flow.algorithm.FordFulkerson;
+import com.algo.network.flow.algorithm.VerificationResult;
+import com.algo.network.flow.checkpoint.FlowCheckpointer;
 import com.algo.network.flow.network.FlowNetwork;
 import com.algo.network.flow.parser.Parser;
 
@@ -25,6 +28,8 @@ public class Main {
 
     private static final String INPUT_DIRECTORY = "input";
     private static final String DEFAULT_FILE = "network.txt";
+    private static final String CHECKPOINT_DIRECTORY = "checkpoints";
+    private static final long CHECKPOINT_INTERVAL_MILLIS = 30_000;
 
     /**
      * Main method to run the program
@@ -256,7 +261,8 @@ public class Main {
     }
 
     /**
-     * Processes a single file with the Ford-Fulkerson algorithm
+     * Processes a single file with the Ford-Fulkerson algorithm. Long solves are checkpointed, so processing the
+     * same file again after the program was stopped resumes where it left off.
      *
      * @param filename the file to process
      * @throws IOException if the file cannot be read
@@ -268,9 +274,23 @@ public class Main {
         System.out.println("Source node: " + flowNetwork.getSourceNode());
         System.out.println("Sink node: " + flowNetwork.getSinkNode());
 
-        System.out.println("\nCalculating maximum flow...");
-        int maxFlow = FordFulkerson.computeMaximumFlow(flowNetwork);
-        System.out.println("\nMaximum flow: " + maxFlow);
+        Path checkpointFile = Paths.get(CHECKPOINT_DIRECTORY, Paths.get(filename).getFileName() + ".ckpt");
+        try (FlowCheckpointer checkpointer = new FlowCheckpointer(checkpointFile, CHECKPOINT_INTERVAL_MILLIS)) {
+            System.out.println("\nCalculating maximum flow...");
+            int maxFlow = FordFulkerson.computeMaximumFlow(flowNetwork, null, checkpointer);
+            System.out.println("\nMaximum flow: " + maxFlow);
+
+            VerificationResult verification = FlowVerifier.verify(flowNetwork, maxFlow);
+            if (verification.isValid()) {
+                System.out.println("Certified: minimum cut capacity is " + verification.getCutCapacity());
+                checkpointer.deleteCheckpoint();
+            } else {
+                System.out.println("WARNING: Result could not be certified");
+                for (String violation : verification.getViolations()) {
+                    System.out.println("  " + violation);
+                }
+            }
+        }
     }
 
     /**
@@ -0,0 +1,43 @@
+/**
+ * Represents a single source to sink maximum flow query
+ * Author: Soshan Wijayarathne
+ * IIT id: 20230427
+ * UOW id: w2051662
+ */
+package com.algo.network.flow.algorithm;
+
+/**
+ * The FlowQuery class names the source and sink node of one maximum flow computation
+ */
+public final class FlowQuery {
+
+    private final int sourceNode;
+    private final int sinkNode;
+
+    /**
+     * Constructs a query from the source node to the sink node
+     *
+     * @param sourceNode the source node index
+     * @param sinkNode the sink node index
+     */
+    public FlowQuery(int sourceNode, int sinkNode) {
+        this.sourceNode = sourceNode;
+        this.sinkNode = sinkNode;
+    }
+
+    public int getSourceNode() {
+        return sourceNode;
+    }
+
+    public int getSinkNode() {
+        return sinkNode;
+    }
+
+    @Override
+    public String toString() {
+        return "FlowQuery{" +
+                "sourceNode=" + sourceNode +
+                ", sinkNode=" + sinkNode +
+                '}';
+    }
+}
@@ -0,0 +1,182 @@
+/**
+ * Verifies maximum flow results without solving again
+ * Author: Soshan Wijayarathne
+ * IIT id: 20230427
+ * UOW id: w2051662
+ */
+package com.algo.network.flow.algorithm;
+
+import com.algo.network.flow.network.Edge;
+import com.algo.network.flow.network.FlowNetwork;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * The FlowVerifier class checks that the flow stored in a solved network is a maximum flow of the reported value.
+ * By the max-flow min-cut theorem it is enough to check that
+ * <ul>
+ *     <li>every edge respects its capacity and carries the negated flow of its residual edge,</li>
+ *     <li>flow is conserved at every node except the source and the sink,</li>
+ *     <li>the net flow out of the source is the reported value, and</li>
+ *     <li>the sink is not reachable from the source in the residual graph, and the cut between reachable and
+ *     unreachable nodes has a capacity equal to the reported value.</li>
+ * </ul>
+ * All checks together take O(V+E) time, far less than solving again. The per-edge checks and the cut capacity
+ * are computed over node ranges in parallel; the residual search is a single BFS.
+ */
+public class FlowVerifier {
+
+    /**
+     * Violations reported per node range, so a badly broken flow does not flood the result
+     */
+    private static final int MAX_VIOLATIONS_PER_RANGE = 10;
+
+    /**
+     * Verifies that the network holds a maximum flow of the reported value
+     *
+     * @param network the solved flow network
+     * @param reportedMaxFlow the maximum flow value reported by the solver
+     * @return the verification result, including the minimum cut
+     */
+    public static VerificationResult verify(FlowNetwork network, long reportedMaxFlow) {
+        List<String> violations = new ArrayList<>(checkFeasibleFlow(network, reportedMaxFlow));
+
+        boolean[] sourceSide = findResidualReachable(network);
+        if (sourceSide[network.getSinkNode()]) {
+            violations.add("Sink " + network.getSinkNode() + " is reachable from the source in the residual graph, " +
+                    "so the flow is not maximum");
+        }
+
+        long cutCapacity = computeCutCapacity(network, sourceSide);
+        if (cutCapacity != reportedMaxFlow) {
+            violations.add("Residual cut has capacity " + cutCapacity + " but the reported maximum flow is " + reportedMaxFlow);
+        }
+
+        return new VerificationResult(violations, sourceSide, cutCapacity);
+    }
+
+    /**
+     * Checks capacity constraints, skew symmetry and flow conservation, and that the flow has the given value.
+     * This does not check maximality, so it also applies to the intermediate flow of an unfinished solve.
+     *
+     * @param network the flow network
+     * @param flowValue the expected net flow out of the source
+     * @return the violations found, empty if the flow is feasible
+     */
+    public static List<String> checkFeasibleFlow(FlowNetwork network, long flowValue) {
+        int numberOfNodes = network.getNumberOfNodes();
+        int rangeSize = rangeSize(numberOfNodes);
+        int ranges = (numberOfNodes + rangeSize - 1) / rangeSize;
+
+        return IntStream.range(0, ranges).parallel()
+                .mapToObj(range -> checkNodeRange(network, flowValue, range * rangeSize,
+                        Math.min(numberOfNodes, (range + 1) * rangeSize)))
+                .flatMap(List::stream)
+                .collect(Collectors.toList());
+    }
+
+    private static List<String> checkNodeRange(FlowNetwork network, long flowValue, int fromNode, int toNode) {
+        List<String> violations = new ArrayList<>();
+        List<List<Edge>> adjacencyList = network.getAdjacencyList();
+
+        for (int node = fromNode; node < toNode; node++) {
+            long netOutflow = 0;
+            for (Edge edge : adjacencyList.get(node)) {
+                Edge residualEdge = edge.getResidualEdge();
+                if (residualEdge == null || residualEdge.getResidualEdge() != edge) {
+                    addViolation(violations, "Edge " + node + " -> " + edge.getTargetNode() + " has no matching residual edge");
+                    continue;
+                }
+                if (edge.getFlow() != -residualEdge.getFlow()) {
+                    addViolation(violations, "Edge " + node + " -> " + edge.getTargetNode() + " has flow " + edge.getFlow() +
+                            " but its residual edge has flow " + residualEdge.getFlow());
+                }
+                if (edge.getFlow() > edge.getCapacity()) {
+                    addViolation(violations, "Edge " + node + " -> " + edge.getTargetNode() + " has flow " + edge.getFlow() +
+                            " above its capacity " + edge.getCapacity());
+                }
+                netOutflow += edge.getFlow();
+            }
+
+            long expectedOutflow = 0;
+            if (node == network.getSourceNode()) {
+                expectedOutflow = flowValue;
+            } else if (node == network.getSinkNode()) {
+                expectedOutflow = -flowValue;
+            }
+            if (netOutflow != expectedOutflow) {
+                addViolation(violations, "Node " + node + " has net outflow " + netOutflow + " but " + expectedOutflow + " was expected");
+            }
+        }
+        return violations;
+    }
+
+    private static void addViolation(List<String> violations, String violation) {
+        if (violations.size() < MAX_VIOLATIONS_PER_RANGE) {
+            violations.add(violation);
+        }
+    }
+
+    /**
+     * Marks every node reachable from the source through edges with remaining capacity
+     */
+    private static boolean[] findResidualReachable(FlowNetwork network) {
+        int numberOfNodes = network.getNumberOfNodes();
+        boolean[] reachable = new boolean[numberOfNodes];
+        int[] queue = new int[numberOfNodes];
+        int head = 0;
+        int tail = 0;
+        queue[tail++] = network.getSourceNode();
+        reachable[network.getSourceNode()] = true;
+
+        while (head < tail) {
+            int currentNode = queue[head++];
+            for (Edge edge : network.getAdjacencyList().get(currentNode)) {
+                int nextNode = edge.getTargetNode();
+                if (!reachable[nextNode] && edge.getResidualCapacity() > 0) {
+                    reachable[nextNode] = true;
+                    queue[tail++] = nextNode;
+                }
+            }
+        }
+        return reachable;
+    }
+
+    /**
+     * Sums the capacity of every edge leaving the source side of the cut
+     */
+    private static long computeCutCapacity(FlowNetwork network, boolean[] sourceSide) {
+        int numberOfNodes = network.getNumberOfNodes();
+        int rangeSize = rangeSize(numberOfNodes);
+        int ranges = (numberOfNodes + rangeSize - 1) / rangeSize;
+        List<List<Edge>> adjacencyList = network.getAdjacencyList();
+
+        return IntStream.range(0, ranges).parallel().mapToLong(range -> {
+            long capacity = 0;
+            int toNode = Math.min(numberOfNodes, (range + 1) * rangeSize);
+            for (int node = range * rangeSize; node < toNode; node++) {
+                if (!sourceSide[node]) {
+                    continue;
+                }
+                for (Edge edge : adjacencyList.get(node)) {
+                    if (!sourceSide[edge.getTargetNode()]) {
+                        capacity += edge.getCapacity();
+                    }
+                }
+            }
+            return capacity;
+        }).sum();
+    }
+
+    /**
+     * Splits the nodes into a few ranges per worker thread
+     */
+    private static int rangeSize(int numberOfNodes) {
+        int ranges = ForkJoinPool.getCommonPoolParallelism() * 4;
+        return Math.max(1, (numberOfNodes + ranges - 1) / ranges);
+    }
+}
@@ -6,8 +6,10 @@
  */
 package com.algo.network.flow.algorithm;
 
+import com.algo.network.flow.checkpoint.FlowCheckpointer;
 import com.algo.network.flow.network.Edge;
 import com.algo.network.flow.network.FlowNetwork;
+import com.algo.network.flow.network.NodeReordering;
 
 import java.util.*;
 
@@ -16,6 +18,11 @@ import java.util.*;
  */
 public class FordFulkerson {
 
+    /**
+     * Engine name stored in checkpoints written by this class
+     */
+    public static final String ENGINE_NAME = "edmonds-karp";
+
     /**
      * Computes the maximum flow from source to sink in the given network.
      *
@@ -23,14 +30,45 @@ public class FordFulkerson {
      * @return the value of the maximum flow
      */
     public static int computeMaximumFlow(FlowNetwork network) {
+        return computeMaximumFlow(network, null, null);
+    }
+
+    /**
+     * Computes the maximum flow of a network that was renumbered by the given reordering.
+     * Augmenting paths are printed with the original node indices.
+     *
+     * @param network the reordered flow network
+     * @param reordering the reordering the network was built with, or null if the node indices are original
+     * @return the value of the maximum flow
+     */
+    public static int computeMaximumFlow(FlowNetwork network, NodeReordering reordering) {
+        return computeMaximumFlow(network, reordering, null);
+    }
+
+    /**
+     * Computes the maximum flow, resuming from the checkpointer's latest checkpoint if it has a valid one and
+     * checkpointing periodically while augmenting paths are found.
+     *
+     * @param network the flow network, possibly renumbered
+     * @param reordering the reordering the network was built with, or null if the node indices are original
+     * @param checkpointer the checkpointer to resume from and write to, or null to solve without checkpoints
+     * @return the value of the maximum flow
+     */
+    public static int computeMaximumFlow(FlowNetwork network, NodeReordering reordering, FlowCheckpointer checkpointer) {
         int maxFlow = 0;
+        if (checkpointer != null) {
+            maxFlow = checkpointer.resume(network, ENGINE_NAME);
+        }
         List<Integer> augmentingPath;
 
         while ((augmentingPath = findAugmentingPath(network)) != null) {
             int bottleneck = findBottleneckCapacity(network, augmentingPath);
             updateResidualCapacities(network, augmentingPath, bottleneck);
             maxFlow += bottleneck;
-            printAugmentingPath(augmentingPath, bottleneck);
+            printAugmentingPath(reordering == null ? augmentingPath : reordering.toOriginalPath(augmentingPath), bottleneck);
+            if (checkpointer != null) {
+                checkpointer.maybeCheckpoint(network, ENGINE_NAME, maxFlow);
+            }
         }
         return maxFlow;
     }
@@ -0,0 +1,231 @@
+/**
+ * Answers many maximum flow queries concurrently over one shared topology
+ * Author: Soshan Wijayarathne
+ * IIT id: 20230427
+ * UOW id: w2051662
+ */
+package com.algo.network.flow.algorithm;
+
+import com.algo.network.flow.network.FlowState;
+import com.algo.network.flow.network.FlowTopology;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * The MaxFlowQueryEngine class runs the Edmonds-Karp algorithm for arbitrary source and sink pairs on a shared,
+ * read-only {@link FlowTopology}. Each running query borrows a pooled workspace (flow state and BFS buffers),
+ * which is reset in place and returned to the pool afterwards, so the topology is parsed once and no
+ * per-query allocation is needed once the pool is warm.
+ */
+public class MaxFlowQueryEngine {
+
+    /**
+     * Queries per fork-join task below which a batch is no longer split
+     */
+    private static final int SEQUENTIAL_THRESHOLD = 1;
+
+    private final FlowTopology topology;
+    private final ForkJoinPool pool;
+    private final ConcurrentLinkedQueue<Workspace> idleWorkspaces = new ConcurrentLinkedQueue<>();
+
+    /**
+     * Constructs an engine that runs batches on the common fork-join pool
+     *
+     * @param topology the shared topology
+     */
+    public MaxFlowQueryEngine(FlowTopology topology) {
+        this(topology, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Constructs an engine that runs batches on the given fork-join pool
+     *
+     * @param topology the shared topology
+     * @param pool the pool used by {@link #computeMaximumFlows(List)}
+     */
+    public MaxFlowQueryEngine(FlowTopology topology, ForkJoinPool pool) {
+        this.topology = topology;
+        this.pool = pool;
+    }
+
+    public FlowTopology getTopology() {
+        return topology;
+    }
+
+    /**
+     * Computes the maximum flow from source to sink using a pooled workspace
+     *
+     * @param sourceNode the source node index
+     * @param sinkNode the sink node index
+     * @return the value of the maximum flow
+     */
+    public int computeMaximumFlow(int sourceNode, int sinkNode) {
+        validateQuery(topology, sourceNode, sinkNode);
+        Workspace workspace = borrowWorkspace();
+        try {
+            return solve(workspace.state, workspace.parentEdge, workspace.queue, sourceNode, sinkNode);
+        } finally {
+            idleWorkspaces.offer(workspace);
+        }
+    }
+
+    /**
+     * Computes the maximum flow of every query concurrently on the engine's fork-join pool
+     *
+     * @param queries the queries to answer
+     * @return the maximum flow of each query, in the same order as the queries
+     */
+    public int[] computeMaximumFlows(List<FlowQuery> queries) {
+        for (FlowQuery query : queries) {
+            validateQuery(topology, query.getSourceNode(), query.getSinkNode());
+        }
+        int[] results = new int[queries.size()];
+        if (!queries.isEmpty()) {
+            pool.invoke(new QueryBatchTask(queries, results, 0, queries.size()));
+        }
+        return results;
+    }
+
+    /**
+     * Computes the maximum flow from source to sink into the given flow state. The state is reset first and holds
+     * the final flow afterwards, so callers can inspect it.
+     *
+     * @param state the flow state to compute into
+     * @param sourceNode the source node index
+     * @param sinkNode the sink node index
+     * @return the value of the maximum flow
+     */
+    public static int computeMaximumFlow(FlowState state, int sourceNode, int sinkNode) {
+        FlowTopology topology = state.getTopology();
+        validateQuery(topology, sourceNode, sinkNode);
+        int numberOfNodes = topology.getNumberOfNodes();
+        return solve(state, new int[numberOfNodes], new int[numberOfNodes], sourceNode, sinkNode);
+    }
+
+    private Workspace borrowWorkspace() {
+        Workspace workspace = idleWorkspaces.poll();
+        return workspace != null ? workspace : new Workspace(topology);
+    }
+
+    private static void validateQuery(FlowTopology topology, int sourceNode, int sinkNode) {
+        int numberOfNodes = topology.getNumberOfNodes();
+        if (sourceNode < 0 || sourceNode >= numberOfNodes) {
+            throw new IllegalArgumentException("Invalid source node " + sourceNode +
+                    ". Node indices must be between 0 and " + (numberOfNodes - 1));
+        }
+        if (sinkNode < 0 || sinkNode >= numberOfNodes) {
+            throw new IllegalArgumentException("Invalid sink node " + sinkNode +
+                    ". Node indices must be between 0 and " + (numberOfNodes - 1));
+        }
+        if (sourceNode == sinkNode) {
+            throw new IllegalArgumentException("Source and sink must be different nodes but both are " + sourceNode);
+        }
+    }
+
+    /**
+     * Runs Edmonds-Karp with the given buffers, starting from zero flow
+     */
+    private static int solve(FlowState state, int[] parentEdge, int[] queue, int sourceNode, int sinkNode) {
+        FlowTopology topology = state.getTopology();
+        state.reset();
+        int maxFlow = 0;
+
+        while (findAugmentingPath(topology, state, parentEdge, queue, sourceNode, sinkNode)) {
+            int bottleneck = Integer.MAX_VALUE;
+            for (int node = sinkNode; node != sourceNode; node = tailOf(topology, parentEdge[node])) {
+                bottleneck = Math.min(bottleneck, state.getResidualCapacity(parentEdge[node]));
+            }
+            for (int node = sinkNode; node != sourceNode; node = tailOf(topology, parentEdge[node])) {
+                state.augmentFlow(parentEdge[node], bottleneck);
+            }
+            maxFlow += bottleneck;
+        }
+        return maxFlow;
+    }
+
+    /**
+     * Finds an augmenting path using BFS, recording for every reached node the edge it was reached through
+     *
+     * @return true if the sink was reached
+     */
+    private static boolean findAugmentingPath(FlowTopology topology, FlowState state, int[] parentEdge, int[] queue,
+                                              int sourceNode, int sinkNode) {
+        Arrays.fill(parentEdge, -1);
+        parentEdge[sourceNode] = -2;  // Special value to mark source
+        int head = 0;
+        int tail = 0;
+        queue[tail++] = sourceNode;
+
+        while (head < tail) {
+            int currentNode = queue[head++];
+            int end = topology.getFirstEdge(currentNode + 1);
+            for (int edge = topology.getFirstEdge(currentNode); edge < end; edge++) {
+                int nextNode = topology.getTargetNode(edge);
+                if (parentEdge[nextNode] == -1 && state.getResidualCapacity(edge) > 0) {
+                    parentEdge[nextNode] = edge;
+                    if (nextNode == sinkNode) {
+                        return true;
+                    }
+                    queue[tail++] = nextNode;
+                }
+            }
+        }
+        return false;
+    }
+
+    private static int tailOf(FlowTopology topology, int edge) {
+        return topology.getTargetNode(topology.getReverseEdge(edge));
+    }
+
+    /**
+     * Flow state and BFS buffers owned by one query at a time
+     */
+    private static final class Workspace {
+        private final FlowState state;
+        private final int[] parentEdge;
+        private final int[] queue;
+
+        private Workspace(FlowTopology topology) {
+            this.state = new FlowState(topology);
+            this.parentEdge = new int[topology.getNumberOfNodes()];
+            this.queue = new int[topology.getNumberOfNodes()];
+        }
+    }
+
+    /**
+     * Splits a batch of queries in halves until single queries remain
+     */
+    private final class QueryBatchTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final transient List<FlowQuery> queries;
+        private final int[] results;
+        private final int from;
+        private final int to;
+
+        private QueryBatchTask(List<FlowQuery> queries, int[] results, int from, int to) {
+            this.queries = queries;
+            this.results = results;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= SEQUENTIAL_THRESHOLD) {
+                for (int i = from; i < to; i++) {
+                    FlowQuery query = queries.get(i);
+                    results[i] = computeMaximumFlow(query.getSourceNode(), query.getSinkNode());
+                }
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(new QueryBatchTask(queries, results, from, middle),
+                    new QueryBatchTask(queries, results, middle, to));
+        }
+    }
+}
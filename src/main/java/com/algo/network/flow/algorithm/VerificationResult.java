@@ -0,0 +1,64 @@
+/**
+ * Holds the outcome of verifying a maximum flow
+ * Author: Soshan Wijayarathne
+ * IIT id: 20230427
+ * UOW id: w2051662
+ */
+package com.algo.network.flow.algorithm;
+
+import java.util.List;
+
+/**
+ * The VerificationResult class reports whether a solved network is a valid maximum flow certificate, the minimum
+ * cut that was derived from its residual graph, and the violations that were found
+ */
+public final class VerificationResult {
+
+    private final List<String> violations;
+    private final boolean[] sourceSide;
+    private final long cutCapacity;
+
+    /**
+     * Constructs a verification result
+     *
+     * @param violations the violations found, empty if the flow is certified
+     * @param sourceSide for every node, whether it is reachable from the source in the residual graph
+     * @param cutCapacity the capacity of the cut between reachable and unreachable nodes
+     */
+    public VerificationResult(List<String> violations, boolean[] sourceSide, long cutCapacity) {
+        this.violations = List.copyOf(violations);
+        this.sourceSide = sourceSide;
+        this.cutCapacity = cutCapacity;
+    }
+
+    public boolean isValid() {
+        return violations.isEmpty();
+    }
+
+    public List<String> getViolations() {
+        return violations;
+    }
+
+    public long getCutCapacity() {
+        return cutCapacity;
+    }
+
+    /**
+     * Returns whether the node is on the source side of the minimum cut
+     *
+     * @param node the node index
+     * @return true if the node is reachable from the source in the residual graph
+     */
+    public boolean isOnSourceSide(int node) {
+        return sourceSide[node];
+    }
+
+    @Override
+    public String toString() {
+        return "VerificationResult{" +
+                "valid=" + isValid() +
+                ", cutCapacity=" + cutCapacity +
+                ", violations=" + violations +
+                '}';
+    }
+}
@@ -0,0 +1,277 @@
+/**
+ * Represents a snapshot of an unfinished maximum flow solve
+ * Author: Soshan Wijayarathne
+ * IIT id: 20230427
+ * UOW id: w2051662
+ */
+package com.algo.network.flow.checkpoint;
+
+import com.algo.network.flow.network.Edge;
+import com.algo.network.flow.network.FlowNetwork;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedInputStream;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * The FlowCheckpoint class holds the state of a solve: the flow on every edge in adjacency list order, the maximum
+ * flow accumulated so far, and any labels the engine keeps per node (empty for Edmonds-Karp). A fingerprint of the
+ * network's structure ties the snapshot to the network it was taken from.
+ * <p>
+ * On disk, values are written as zig-zag variable-length integers, so the many edges without flow take one byte
+ * each, and the file ends with a CRC32 checksum so truncated or corrupted snapshots are detected.
+ */
+public final class FlowCheckpoint {
+
+    private static final int MAGIC = 0x4D46434B; // "MFCK"
+    private static final int VERSION = 1;
+
+    private final String engine;
+    private final long fingerprint;
+    private final int numberOfNodes;
+    private final int maxFlow;
+    private final int[] flows;
+    private final int[] labels;
+
+    /**
+     * Constructs a checkpoint from already copied state
+     *
+     * @param engine the name of the engine that took the snapshot
+     * @param fingerprint the fingerprint of the network
+     * @param numberOfNodes the number of nodes of the network
+     * @param maxFlow the flow accumulated so far
+     * @param flows the flow on every edge in adjacency list order
+     * @param labels the engine's per-node labels, possibly empty
+     */
+    public FlowCheckpoint(String engine, long fingerprint, int numberOfNodes, int maxFlow, int[] flows, int[] labels) {
+        this.engine = engine;
+        this.fingerprint = fingerprint;
+        this.numberOfNodes = numberOfNodes;
+        this.maxFlow = maxFlow;
+        this.flows = flows;
+        this.labels = labels;
+    }
+
+    /**
+     * Copies the current flow of the network into a new checkpoint
+     *
+     * @param network the network being solved
+     * @param fingerprint the fingerprint of the network, see {@link #fingerprint(FlowNetwork)}
+     * @param engine the name of the engine
+     * @param maxFlow the flow accumulated so far
+     * @param labels the engine's per-node labels, possibly empty; the array is copied
+     * @return the checkpoint
+     */
+    public static FlowCheckpoint capture(FlowNetwork network, long fingerprint, String engine, int maxFlow, int[] labels) {
+        List<List<Edge>> adjacencyList = network.getAdjacencyList();
+        int numberOfEdges = 0;
+        for (List<Edge> edges : adjacencyList) {
+            numberOfEdges += edges.size();
+        }
+        int[] flows = new int[numberOfEdges];
+        int index = 0;
+        for (List<Edge> edges : adjacencyList) {
+            for (Edge edge : edges) {
+                flows[index++] = edge.getFlow();
+            }
+        }
+        return new FlowCheckpoint(engine, fingerprint, network.getNumberOfNodes(), maxFlow, flows, labels.clone());
+    }
+
+    /**
+     * Computes a fingerprint of the network's nodes, terminals and edges, in adjacency list order
+     *
+     * @param network the flow network
+     * @return the fingerprint
+     */
+    public static long fingerprint(FlowNetwork network) {
+        long hash = mix(0x9E3779B97F4A7C15L, network.getNumberOfNodes());
+        hash = mix(hash, network.getSourceNode());
+        hash = mix(hash, network.getSinkNode());
+        for (List<Edge> edges : network.getAdjacencyList()) {
+            hash = mix(hash, edges.size());
+            for (Edge edge : edges) {
+                hash = mix(hash, edge.getTargetNode());
+                hash = mix(hash, edge.getCapacity());
+            }
+        }
+        return hash;
+    }
+
+    private static long mix(long hash, int value) {
+        hash ^= value;
+        hash *= 0xBF58476D1CE4E5B9L;
+        return hash ^ (hash >>> 31);
+    }
+
+    /**
+     * Copies the stored flows back into the edges of the network
+     *
+     * @param network the network to restore, which must have the same structure
+     */
+    public void restoreFlows(FlowNetwork network) {
+        int index = 0;
+        for (List<Edge> edges : network.getAdjacencyList()) {
+            for (Edge edge : edges) {
+                edge.setFlow(flows[index++]);
+            }
+        }
+    }
+
+    public String getEngine() {
+        return engine;
+    }
+
+    public long getFingerprint() {
+        return fingerprint;
+    }
+
+    public int getNumberOfNodes() {
+        return numberOfNodes;
+    }
+
+    public int getNumberOfEdges() {
+        return flows.length;
+    }
+
+    public int getMaxFlow() {
+        return maxFlow;
+    }
+
+    public int[] getLabels() {
+        return labels.clone();
+    }
+
+    /**
+     * Writes the checkpoint to a file and forces it to the storage device before returning, so a file that is
+     * renamed into place afterwards cannot lose its contents in a host crash
+     *
+     * @param file the file to write
+     * @throws IOException if an I/O error occurs
+     */
+    public void write(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            OutputStream fileOutput = Channels.newOutputStream(channel);
+            CheckedOutputStream checked = new CheckedOutputStream(new BufferedOutputStream(fileOutput), new CRC32());
+            DataOutputStream output = new DataOutputStream(checked);
+            output.writeInt(MAGIC);
+            output.writeInt(VERSION);
+            output.writeUTF(engine);
+            output.writeLong(fingerprint);
+            writeVarInt(output, numberOfNodes);
+            writeVarInt(output, maxFlow);
+            writeVarInt(output, flows.length);
+            for (int flow : flows) {
+                writeVarInt(output, flow);
+            }
+            writeVarInt(output, labels.length);
+            for (int label : labels) {
+                writeVarInt(output, label);
+            }
+            output.flush();
+            // the checksum itself is written after everything it covers
+            new DataOutputStream(fileOutput).writeLong(checked.getChecksum().getValue());
+            channel.force(true);
+        }
+    }
+
+    /**
+     * Reads a checkpoint from a file
+     *
+     * @param file the file to read
+     * @return the checkpoint
+     * @throws IOException if an I/O error occurs or the file is not a complete, uncorrupted checkpoint
+     */
+    public static FlowCheckpoint read(Path file) throws IOException {
+        long fileSize = Files.size(file);
+        try (InputStream fileInput = new BufferedInputStream(Files.newInputStream(file))) {
+            CheckedInputStream checked = new CheckedInputStream(fileInput, new CRC32());
+            DataInputStream input = new DataInputStream(checked);
+            if (input.readInt() != MAGIC) {
+                throw new IOException("Not a flow checkpoint: " + file);
+            }
+            int version = input.readInt();
+            if (version != VERSION) {
+                throw new IOException("Unsupported checkpoint version " + version + " in " + file);
+            }
+            String engine = input.readUTF();
+            long fingerprint = input.readLong();
+            int numberOfNodes = readVarInt(input);
+            int maxFlow = readVarInt(input);
+            int[] flows = new int[readLength(input, fileSize)];
+            for (int i = 0; i < flows.length; i++) {
+                flows[i] = readVarInt(input);
+            }
+            int[] labels = new int[readLength(input, fileSize)];
+            for (int i = 0; i < labels.length; i++) {
+                labels[i] = readVarInt(input);
+            }
+
+            long expectedChecksum = checked.getChecksum().getValue();
+            if (new DataInputStream(fileInput).readLong() != expectedChecksum) {
+                throw new IOException("Checkpoint " + file + " is corrupted (checksum mismatch)");
+            }
+            return new FlowCheckpoint(engine, fingerprint, numberOfNodes, maxFlow, flows, labels);
+        } catch (EOFException e) {
+            throw new IOException("Checkpoint " + file + " is truncated", e);
+        }
+    }
+
+    private static void writeVarInt(DataOutputStream output, int value) throws IOException {
+        int zigZag = (value << 1) ^ (value >> 31);
+        while ((zigZag & ~0x7F) != 0) {
+            output.writeByte((zigZag & 0x7F) | 0x80);
+            zigZag >>>= 7;
+        }
+        output.writeByte(zigZag);
+    }
+
+    private static int readVarInt(DataInputStream input) throws IOException {
+        int zigZag = 0;
+        for (int shift = 0; shift < 35; shift += 7) {
+            int value = input.readUnsignedByte();
+            zigZag |= (value & 0x7F) << shift;
+            if ((value & 0x80) == 0) {
+                return (zigZag >>> 1) ^ -(zigZag & 1);
+            }
+        }
+        throw new IOException("Malformed variable-length integer in checkpoint");
+    }
+
+    /**
+     * Reads an array length, rejecting lengths the file is too small to hold before anything is allocated
+     */
+    private static int readLength(DataInputStream input, long fileSize) throws IOException {
+        int length = readVarInt(input);
+        if (length < 0 || length > fileSize) {
+            throw new IOException("Invalid array length " + length + " in checkpoint");
+        }
+        return length;
+    }
+
+    @Override
+    public String toString() {
+        return "FlowCheckpoint{" +
+                "engine='" + engine + '\'' +
+                ", numberOfNodes=" + numberOfNodes +
+                ", numberOfEdges=" + flows.length +
+                ", maxFlow=" + maxFlow +
+                ", labels=" + labels.length +
+                '}';
+    }
+}
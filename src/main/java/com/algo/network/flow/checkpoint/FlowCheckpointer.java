@@ -0,0 +1,299 @@
+/**
+ * Periodically checkpoints a maximum flow solve and resumes it after a restart
+ * Author: Soshan Wijayarathne
+ * IIT id: 20230427
+ * UOW id: w2051662
+ */
+package com.algo.network.flow.checkpoint;
+
+import com.algo.network.flow.algorithm.FlowVerifier;
+import com.algo.network.flow.network.Edge;
+import com.algo.network.flow.network.FlowNetwork;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * The FlowCheckpointer class keeps the latest {@link FlowCheckpoint} of a solve in one file.
+ * <p>
+ * A solver calls {@link #resume} once before it starts and {@link #maybeCheckpoint} after every step. Once the
+ * interval has passed, the state is copied and handed to a background thread that writes it to a temporary file
+ * and atomically moves it over the previous checkpoint, so the solver never waits for the disk and a crash never
+ * leaves a half-written checkpoint behind. The temporary file is forced to disk before the move, and the directory
+ * after it, so even a host crash keeps either the previous or the new checkpoint intact. If a write is still
+ * running when the next snapshot arrives, only the newest pending snapshot is written.
+ * <p>
+ * On resume the checkpoint is only used if it belongs to the same engine and network, and the restored flow passes
+ * {@link FlowVerifier#checkFeasibleFlow}. Otherwise the solve starts from zero flow.
+ */
+public class FlowCheckpointer implements AutoCloseable {
+
+    private static final int[] NO_LABELS = new int[0];
+
+    private final Path checkpointFile;
+    private final long intervalNanos;
+    private final ExecutorService writer;
+    private final AtomicReference<FlowCheckpoint> pendingCheckpoint = new AtomicReference<>();
+
+    private FlowNetwork fingerprintedNetwork;
+    private long fingerprint;
+    private long lastCheckpointTime;
+    private volatile IOException lastWriteError;
+
+    /**
+     * Constructs a checkpointer that writes to the given file at most once per interval
+     *
+     * @param checkpointFile the checkpoint file
+     * @param intervalMillis the minimum time between checkpoints in milliseconds
+     */
+    public FlowCheckpointer(Path checkpointFile, long intervalMillis) {
+        this.checkpointFile = checkpointFile;
+        this.intervalNanos = TimeUnit.MILLISECONDS.toNanos(intervalMillis);
+        this.writer = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "flow-checkpoint-writer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.lastCheckpointTime = System.nanoTime();
+    }
+
+    public Path getCheckpointFile() {
+        return checkpointFile;
+    }
+
+    /**
+     * Restores the network's flow from the latest checkpoint if there is a valid one
+     *
+     * @param network the network to solve, with zero flow
+     * @param engine the name of the solving engine
+     * @return the flow accumulated in the checkpoint, or 0 if the solve starts from scratch
+     */
+    public int resume(FlowNetwork network, String engine) {
+        return resume(network, engine, NO_LABELS);
+    }
+
+    /**
+     * Restores the network's flow and the engine's labels from the latest checkpoint if there is a valid one
+     *
+     * @param network the network to solve, with zero flow
+     * @param engine the name of the solving engine
+     * @param labels the engine's label array, filled from the checkpoint if one is restored
+     * @return the flow accumulated in the checkpoint, or 0 if the solve starts from scratch
+     */
+    public int resume(FlowNetwork network, String engine, int[] labels) {
+        if (!Files.exists(checkpointFile)) {
+            return 0;
+        }
+
+        FlowCheckpoint checkpoint;
+        try {
+            checkpoint = FlowCheckpoint.read(checkpointFile);
+        } catch (IOException e) {
+            System.out.println("Warning: Ignoring checkpoint " + checkpointFile + ". " + e.getMessage());
+            return 0;
+        }
+
+        String problem = findMismatch(checkpoint, network, engine, labels);
+        if (problem == null) {
+            checkpoint.restoreFlows(network);
+            List<String> violations = FlowVerifier.checkFeasibleFlow(network, checkpoint.getMaxFlow());
+            if (!violations.isEmpty()) {
+                clearFlows(network);
+                problem = "The restored flow is not valid: " + violations.get(0);
+            }
+        }
+        if (problem != null) {
+            System.out.println("Warning: Ignoring checkpoint " + checkpointFile + ". " + problem);
+            return 0;
+        }
+
+        System.arraycopy(checkpoint.getLabels(), 0, labels, 0, labels.length);
+        System.out.println("Resumed from checkpoint " + checkpointFile + " with flow " + checkpoint.getMaxFlow());
+        return checkpoint.getMaxFlow();
+    }
+
+    /**
+     * Describes why a checkpoint cannot be used for the network, or returns null if it matches
+     */
+    private String findMismatch(FlowCheckpoint checkpoint, FlowNetwork network, String engine, int[] labels) {
+        if (!checkpoint.getEngine().equals(engine)) {
+            return "It was written by engine '" + checkpoint.getEngine() + "', not '" + engine + "'.";
+        }
+        if (checkpoint.getNumberOfNodes() != network.getNumberOfNodes()
+                || checkpoint.getFingerprint() != fingerprintOf(network)) {
+            return "It was written for a different network.";
+        }
+        int numberOfEdges = 0;
+        for (List<Edge> edges : network.getAdjacencyList()) {
+            numberOfEdges += edges.size();
+        }
+        if (checkpoint.getNumberOfEdges() != numberOfEdges) {
+            return "It was written for a different network.";
+        }
+        if (checkpoint.getLabels().length != labels.length) {
+            return "It has " + checkpoint.getLabels().length + " labels but " + labels.length + " were expected.";
+        }
+        return null;
+    }
+
+    private static void clearFlows(FlowNetwork network) {
+        for (List<Edge> edges : network.getAdjacencyList()) {
+            for (Edge edge : edges) {
+                edge.setFlow(0);
+            }
+        }
+    }
+
+    /**
+     * Takes a checkpoint if the interval has passed since the last one
+     *
+     * @param network the network being solved
+     * @param engine the name of the solving engine
+     * @param maxFlow the flow accumulated so far
+     */
+    public void maybeCheckpoint(FlowNetwork network, String engine, int maxFlow) {
+        maybeCheckpoint(network, engine, maxFlow, NO_LABELS);
+    }
+
+    /**
+     * Takes a checkpoint including the engine's labels if the interval has passed since the last one
+     *
+     * @param network the network being solved
+     * @param engine the name of the solving engine
+     * @param maxFlow the flow accumulated so far
+     * @param labels the engine's per-node labels
+     */
+    public void maybeCheckpoint(FlowNetwork network, String engine, int maxFlow, int[] labels) {
+        long now = System.nanoTime();
+        if (now - lastCheckpointTime < intervalNanos) {
+            return;
+        }
+        lastCheckpointTime = now;
+        checkpoint(network, engine, maxFlow, labels);
+    }
+
+    /**
+     * Takes a checkpoint now. The state is copied on the calling thread and written in the background.
+     *
+     * @param network the network being solved
+     * @param engine the name of the solving engine
+     * @param maxFlow the flow accumulated so far
+     * @param labels the engine's per-node labels
+     */
+    public void checkpoint(FlowNetwork network, String engine, int maxFlow, int[] labels) {
+        FlowCheckpoint checkpoint = FlowCheckpoint.capture(network, fingerprintOf(network), engine, maxFlow, labels);
+        if (pendingCheckpoint.getAndSet(checkpoint) == null) {
+            writer.execute(this::writePendingCheckpoint);
+        }
+    }
+
+    private void writePendingCheckpoint() {
+        FlowCheckpoint checkpoint = pendingCheckpoint.getAndSet(null);
+        if (checkpoint == null) {
+            return;
+        }
+        Path temporaryFile = checkpointFile.resolveSibling(checkpointFile.getFileName() + ".tmp");
+        try {
+            Path directory = checkpointFile.toAbsolutePath().getParent();
+            if (directory != null) {
+                Files.createDirectories(directory);
+            }
+            checkpoint.write(temporaryFile);
+            try {
+                Files.move(temporaryFile, checkpointFile, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temporaryFile, checkpointFile, StandardCopyOption.REPLACE_EXISTING);
+            }
+            forceDirectory(directory);
+            lastWriteError = null;
+        } catch (IOException e) {
+            lastWriteError = e;
+            System.err.println("Error: Could not write checkpoint " + checkpointFile + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Forces the directory entry of a rename to disk. Not every platform can open a directory, in which case the
+     * rename is left to the file system.
+     */
+    private static void forceDirectory(Path directory) {
+        if (directory == null) {
+            return;
+        }
+        try (FileChannel channel = FileChannel.open(directory, StandardOpenOption.READ)) {
+            channel.force(true);
+        } catch (IOException e) {
+            // directories cannot be opened on this platform
+        }
+    }
+
+    /**
+     * Returns the error of the most recent checkpoint write, or null if it succeeded
+     *
+     * @return the last write error
+     */
+    public IOException getLastWriteError() {
+        return lastWriteError;
+    }
+
+    /**
+     * Waits until every submitted checkpoint has been written
+     *
+     * @throws InterruptedException if interrupted while waiting
+     */
+    public void awaitWrites() throws InterruptedException {
+        // the writer runs tasks in order, so once this marker has run every earlier write is done
+        try {
+            writer.submit(() -> { }).get();
+        } catch (ExecutionException e) {
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    /**
+     * Deletes the checkpoint file, for example once a solve has finished and been verified
+     *
+     * @throws IOException if the file cannot be deleted
+     */
+    public void deleteCheckpoint() throws IOException {
+        pendingCheckpoint.set(null);
+        try {
+            awaitWrites();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        Files.deleteIfExists(checkpointFile);
+    }
+
+    private long fingerprintOf(FlowNetwork network) {
+        if (fingerprintedNetwork != network) {
+            fingerprint = FlowCheckpoint.fingerprint(network);
+            fingerprintedNetwork = network;
+        }
+        return fingerprint;
+    }
+
+    /**
+     * Writes any pending checkpoint and stops the background writer
+     */
+    @Override
+    public void close() {
+        writer.shutdown();
+        try {
+            writer.awaitTermination(1, TimeUnit.MINUTES);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
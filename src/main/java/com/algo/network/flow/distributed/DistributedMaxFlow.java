@@ -0,0 +1,628 @@
+/**
+ * Coordinates a maximum flow computation split across several worker processes
+ * Author: Soshan Wijayarathne
+ * IIT id: 20230427
+ * UOW id: w2051662
+ */
+package com.algo.network.flow.distributed;
+
+import com.algo.network.flow.network.Edge;
+import com.algo.network.flow.network.FlowNetwork;
+import com.algo.network.flow.network.NodeReordering;
+import com.algo.network.flow.parser.ParallelParser;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntUnaryOperator;
+
+/**
+ * The DistributedMaxFlow class partitions a flow network into regions of consecutive node indices and starts one
+ * {@link RegionWorker} process per region on this machine. Each worker only holds its own region plus ghost copies
+ * of the boundary nodes it points to, and runs region-local push-relabel on it. The network is either streamed to
+ * the workers region by region from a {@link FlowNetwork}, or read by each worker from the input file, in which case
+ * no process ever holds the whole network.
+ * <p>
+ * The coordinator talks to the workers over loopback sockets. It colours the region graph so that neighbouring
+ * regions never run at the same time, discharges each colour's regions in parallel, and then routes the flow
+ * pushed across region boundaries and the new boundary labels to the neighbouring regions. A region that
+ * receives flow has work again. When no region has work, the excess at the sink is the maximum flow. A label
+ * value held by no node then splits the nodes into a minimum cut, and its capacity is summed by the workers. The
+ * coordinator itself keeps only per-region state and one bit per node for the cut.
+ * <p>
+ * Renumbering an in-memory network first with {@link NodeReordering} keeps neighbouring nodes in the same region
+ * and reduces the traffic between workers. The reordering is passed along so that the minimum cut is reported with
+ * the original node indices. Networks read by the workers from a file are partitioned in file order.
+ */
+public class DistributedMaxFlow {
+
+    private static final int CONNECT_TIMEOUT_MILLIS = 60_000;
+    private static final int SHUTDOWN_TIMEOUT_SECONDS = 10;
+
+    private final int regions;
+    private final List<String> workerJvmOptions;
+
+    /**
+     * Constructs a coordinator that splits networks into the given number of regions
+     *
+     * @param regions the number of regions and worker processes
+     */
+    public DistributedMaxFlow(int regions) {
+        this(regions, List.of());
+    }
+
+    /**
+     * Constructs a coordinator that starts its workers with extra JVM options, such as a heap size
+     *
+     * @param regions the number of regions and worker processes
+     * @param workerJvmOptions options passed to every worker JVM
+     */
+    public DistributedMaxFlow(int regions, List<String> workerJvmOptions) {
+        if (regions < 1) {
+            throw new IllegalArgumentException("At least one region is required but got " + regions);
+        }
+        this.regions = regions;
+        this.workerJvmOptions = List.copyOf(workerJvmOptions);
+    }
+
+    /**
+     * Computes the maximum flow and minimum cut of the network using the given number of worker processes
+     *
+     * @param network the flow network
+     * @param regions the number of regions and worker processes
+     * @return the maximum flow and minimum cut
+     * @throws IOException if a worker cannot be started or the connection to it fails
+     */
+    public static DistributedResult computeMaximumFlow(FlowNetwork network, int regions) throws IOException {
+        return new DistributedMaxFlow(regions).compute(network, null);
+    }
+
+    /**
+     * Computes the maximum flow and minimum cut of a network that was renumbered by the given reordering, using the
+     * given number of worker processes. The minimum cut is reported with the original node indices.
+     *
+     * @param network the reordered flow network
+     * @param reordering the reordering the network was built with, or null if the node indices are original
+     * @param regions the number of regions and worker processes
+     * @return the maximum flow and minimum cut
+     * @throws IOException if a worker cannot be started or the connection to it fails
+     */
+    public static DistributedResult computeMaximumFlow(FlowNetwork network, NodeReordering reordering, int regions)
+            throws IOException {
+        return new DistributedMaxFlow(regions).compute(network, reordering);
+    }
+
+    /**
+     * Computes the maximum flow and minimum cut of the network in an input file using the given number of worker
+     * processes, without loading the network in this process
+     *
+     * @param filename the name of the input file
+     * @param regions the number of regions and worker processes
+     * @return the maximum flow and minimum cut
+     * @throws IOException if the file cannot be read, a worker cannot be started or the connection to it fails
+     */
+    public static DistributedResult computeMaximumFlow(String filename, int regions) throws IOException {
+        return new DistributedMaxFlow(regions).compute(filename);
+    }
+
+    /**
+     * Computes the maximum flow and minimum cut of the network. Each region is sent to its worker straight from the
+     * adjacency lists, so the coordinator never builds a second copy of the network; once this method returns the
+     * workers are gone and only the caller's network remains.
+     *
+     * @param network the flow network, possibly renumbered
+     * @param reordering the reordering the network was built with, or null if the node indices are original
+     * @return the maximum flow and minimum cut, with the cut in original node indices
+     * @throws IOException if a worker cannot be started or the connection to it fails
+     */
+    public DistributedResult compute(FlowNetwork network, NodeReordering reordering) throws IOException {
+        int numberOfNodes = network.getNumberOfNodes();
+        checkTerminals(network.getSourceNode(), network.getSinkNode());
+        List<List<Edge>> adjacencyList = network.getAdjacencyList();
+        int[] firstNode = partition(numberOfNodes, node -> adjacencyList.get(node).size());
+
+        // the residual edges of cross edges already sent, mapped to the id their pair was given
+        Map<Edge, Integer> pendingCrossIds = new IdentityHashMap<>();
+        int[] nextCrossId = new int[1];
+        return solve(numberOfNodes, firstNode, reordering, (output, region) -> {
+            output.writeByte(RegionWorker.INIT);
+            writePartition(output, numberOfNodes, network.getSourceNode(), network.getSinkNode(), firstNode, region);
+            writeRegion(output, adjacencyList, firstNode[region], firstNode[region + 1], pendingCrossIds, nextCrossId);
+        });
+    }
+
+    /**
+     * Computes the maximum flow and minimum cut of the network in an input file, with source 0 and sink n - 1 as
+     * in {@link com.algo.network.flow.parser.Parser}. This process only reads the number of nodes; each worker reads
+     * the file itself and keeps the lines that touch its region. Regions get the same number of nodes each, since
+     * the degrees are not known without reading the whole file.
+     *
+     * @param filename the name of the input file
+     * @return the maximum flow and minimum cut
+     * @throws IOException if the file cannot be read, a worker cannot be started or the connection to it fails
+     */
+    public DistributedResult compute(String filename) throws IOException {
+        int numberOfNodes = ParallelParser.readNumberOfNodes(filename);
+        int sourceNode = 0;
+        int sinkNode = numberOfNodes - 1;
+        checkTerminals(sourceNode, sinkNode);
+        int[] firstNode = partition(numberOfNodes, node -> 1);
+        String path = Paths.get(filename).toAbsolutePath().toString();
+
+        return solve(numberOfNodes, firstNode, null, (output, region) -> {
+            output.writeByte(RegionWorker.INIT_FROM_FILE);
+            output.writeUTF(path);
+            writePartition(output, numberOfNodes, sourceNode, sinkNode, firstNode, region);
+        });
+    }
+
+    private static void checkTerminals(int sourceNode, int sinkNode) {
+        if (sourceNode == sinkNode) {
+            throw new IllegalArgumentException("Source and sink must be different nodes but both are " + sourceNode);
+        }
+    }
+
+    /**
+     * Starts the workers, hands every one its region, runs them until no region has work and assembles the result
+     */
+    private DistributedResult solve(int numberOfNodes, int[] firstNode, NodeReordering reordering, RegionSender sender)
+            throws IOException {
+        int regionCount = firstNode.length - 1;
+        List<Process> processes = new ArrayList<>();
+        Connection[] connections = new Connection[regionCount];
+        try (ServerSocket server = new ServerSocket(0, regionCount, InetAddress.getLoopbackAddress())) {
+            server.setSoTimeout(CONNECT_TIMEOUT_MILLIS);
+            for (int region = 0; region < regionCount; region++) {
+                processes.add(startWorker(server.getLocalPort(), region));
+            }
+            for (int i = 0; i < regionCount; i++) {
+                Connection connection = new Connection(server.accept());
+                int region = connection.input.readInt();
+                if (region < 0 || region >= regionCount || connections[region] != null) {
+                    connection.socket.close();
+                    throw new IOException("Unexpected worker connection for region " + region);
+                }
+                connections[region] = connection;
+            }
+
+            // regions are sent in order, which the cross edge ids of an in-memory network rely on
+            for (int region = 0; region < regionCount; region++) {
+                sender.send(connections[region].output, region);
+                connections[region].output.flush();
+            }
+            int[][] neighbours = new int[regionCount][];
+            for (int region = 0; region < regionCount; region++) {
+                DataInputStream input = connections[region].input;
+                neighbours[region] = new int[input.readInt()];
+                for (int i = 0; i < neighbours[region].length; i++) {
+                    neighbours[region][i] = input.readInt();
+                }
+            }
+
+            int rounds = runUntilNoWork(connections, neighbours);
+            return collectResult(connections, numberOfNodes, firstNode, reordering, rounds);
+        } finally {
+            shutDown(connections, processes);
+        }
+    }
+
+    /**
+     * Splits the nodes into consecutive ranges of about the same total weight
+     *
+     * @return the first node of every region, followed by the number of nodes
+     */
+    private int[] partition(int numberOfNodes, IntUnaryOperator weight) {
+        int regionCount = Math.min(regions, numberOfNodes);
+        long totalWeight = 0;
+        for (int node = 0; node < numberOfNodes; node++) {
+            totalWeight += weight.applyAsInt(node);
+        }
+
+        int[] firstNode = new int[regionCount + 1];
+        firstNode[regionCount] = numberOfNodes;
+        int node = 0;
+        long weightBefore = 0;
+        for (int region = 1; region < regionCount; region++) {
+            long targetWeight = totalWeight * region / regionCount;
+            while (node < numberOfNodes && weightBefore < targetWeight) {
+                weightBefore += weight.applyAsInt(node);
+                node++;
+            }
+            // every region keeps at least one node
+            int boundary = Math.max(node, firstNode[region - 1] + 1);
+            firstNode[region] = Math.min(boundary, numberOfNodes - (regionCount - region));
+        }
+        return firstNode;
+    }
+
+    private Process startWorker(int port, int region) throws IOException {
+        List<String> command = new ArrayList<>();
+        command.add(Paths.get(System.getProperty("java.home"), "bin", "java").toString());
+        command.addAll(workerJvmOptions);
+        command.add("-cp");
+        command.add(System.getProperty("java.class.path"));
+        command.add(RegionWorker.class.getName());
+        command.add(String.valueOf(port));
+        command.add(String.valueOf(region));
+        return new ProcessBuilder(command)
+                .redirectOutput(ProcessBuilder.Redirect.INHERIT)
+                .redirectError(ProcessBuilder.Redirect.INHERIT)
+                .start();
+    }
+
+    private static void writePartition(DataOutputStream output, int numberOfNodes, int sourceNode, int sinkNode,
+                                       int[] firstNode, int region) throws IOException {
+        output.writeInt(numberOfNodes);
+        output.writeInt(sourceNode);
+        output.writeInt(sinkNode);
+        output.writeInt(firstNode.length - 1);
+        for (int node : firstNode) {
+            output.writeInt(node);
+        }
+        output.writeInt(region);
+    }
+
+    /**
+     * Sends the edges leaving the nodes {@code [fromNode, toNode)}. An edge inside the region is linked to the local
+     * index of its residual edge. A cross edge is linked to {@code -(id + 1)}, where the id is shared with its
+     * residual edge in the other region: the first of the two regions to be sent picks it and the second finds it.
+     */
+    private static void writeRegion(DataOutputStream output, List<List<Edge>> adjacencyList, int fromNode, int toNode,
+                                    Map<Edge, Integer> pendingCrossIds, int[] nextCrossId) throws IOException {
+        Map<Edge, Integer> localIndex = new IdentityHashMap<>();
+        int offset = 0;
+        for (int node = fromNode; node < toNode; node++) {
+            output.writeInt(offset);
+            for (Edge edge : adjacencyList.get(node)) {
+                localIndex.put(edge, offset++);
+            }
+        }
+        output.writeInt(offset);
+
+        for (int node = fromNode; node < toNode; node++) {
+            for (Edge edge : adjacencyList.get(node)) {
+                int target = edge.getTargetNode();
+                int link;
+                if (target >= fromNode && target < toNode) {
+                    link = localIndex.get(edge.getResidualEdge());
+                } else {
+                    Integer crossId = pendingCrossIds.remove(edge);
+                    if (crossId == null) {
+                        crossId = nextCrossId[0]++;
+                        pendingCrossIds.put(edge.getResidualEdge(), crossId);
+                    }
+                    link = -(crossId + 1);
+                }
+                output.writeInt(target);
+                output.writeInt(edge.getCapacity());
+                output.writeInt(link);
+            }
+        }
+    }
+
+    /**
+     * Discharges regions colour by colour, routing boundary changes between them, until no region has excess to move.
+     * Labels start from a global relabel, and another one runs whenever a region reports that its relabels have
+     * scanned more than its own size since the last one.
+     *
+     * @return the number of region discharges
+     */
+    private static int runUntilNoWork(Connection[] connections, int[][] neighbours) throws IOException {
+        int regionCount = connections.length;
+        int[] colour = colourRegions(neighbours);
+        int colours = Arrays.stream(colour).max().orElse(0) + 1;
+
+        BoundaryUpdates[] updates = new BoundaryUpdates[regionCount];
+        for (int region = 0; region < regionCount; region++) {
+            updates[region] = new BoundaryUpdates();
+        }
+        boolean[] hasWork = relabelGlobally(connections);
+        int rounds = 0;
+
+        while (anyTrue(hasWork)) {
+            for (int currentColour = 0; currentColour < colours; currentColour++) {
+                List<Integer> batch = new ArrayList<>();
+                for (int region = 0; region < regionCount; region++) {
+                    if (colour[region] == currentColour && hasWork[region]) {
+                        batch.add(region);
+                    }
+                }
+                if (batch.isEmpty()) {
+                    continue;
+                }
+
+                // regions of one colour share no edges, so they can run at the same time
+                for (int region : batch) {
+                    connections[region].output.writeByte(RegionWorker.DISCHARGE);
+                    connections[region].output.flush();
+                }
+                boolean relabelDue = false;
+                for (int region : batch) {
+                    hasWork[region] = false;
+                    readBoundaryChanges(connections[region].input, updates);
+                    relabelDue |= connections[region].input.readBoolean();
+                    rounds++;
+                }
+
+                for (int region = 0; region < regionCount; region++) {
+                    if (!updates[region].isEmpty()) {
+                        hasWork[region] |= updates[region].edgeCount > 0;
+                        updates[region].send(connections[region].output);
+                    }
+                }
+                if (relabelDue) {
+                    hasWork = relabelGlobally(connections);
+                }
+            }
+        }
+        return rounds;
+    }
+
+    /**
+     * Sets every label to the node's exact residual distance to the sink. All regions compute distances within their
+     * region from the distances of their ghosts, which start unknown, and exchange the changed boundary distances
+     * until none changes. Distances only decrease, and each exchange settles paths that cross one more boundary.
+     * Neighbouring regions may run at the same time because no flow moves.
+     *
+     * @return for every region, whether it has excess to move under the new labels
+     */
+    private static boolean[] relabelGlobally(Connection[] connections) throws IOException {
+        int regionCount = connections.length;
+        BoundaryUpdates[] updates = new BoundaryUpdates[regionCount];
+        for (int region = 0; region < regionCount; region++) {
+            updates[region] = new BoundaryUpdates();
+            connections[region].output.writeByte(RegionWorker.RELABEL_BEGIN);
+            connections[region].output.flush();
+        }
+        boolean[] replied = new boolean[regionCount];
+        Arrays.fill(replied, true);
+
+        while (anyTrue(replied)) {
+            for (int region = 0; region < regionCount; region++) {
+                if (replied[region]) {
+                    readLabelChanges(connections[region].input, updates);
+                    replied[region] = false;
+                }
+            }
+            for (int region = 0; region < regionCount; region++) {
+                if (updates[region].labelCount > 0) {
+                    updates[region].sendLabels(connections[region].output, RegionWorker.RELABEL_STEP);
+                    replied[region] = true;
+                }
+            }
+        }
+
+        boolean[] hasWork = new boolean[regionCount];
+        for (int region = 0; region < regionCount; region++) {
+            updates[region].sendLabels(connections[region].output, RegionWorker.RELABEL_END);
+        }
+        for (int region = 0; region < regionCount; region++) {
+            hasWork[region] = connections[region].input.readBoolean();
+        }
+        return hasWork;
+    }
+
+    /**
+     * Reads one discharge reply and queues every change for the regions it affects
+     */
+    private static void readBoundaryChanges(DataInputStream input, BoundaryUpdates[] updates) throws IOException {
+        int changedEdges = input.readInt();
+        for (int i = 0; i < changedEdges; i++) {
+            int targetRegion = input.readInt();
+            int crossId = input.readInt();
+            int flowChange = input.readInt();
+            // the residual edge with the same id lives in the region of the target node
+            updates[targetRegion].addEdge(crossId, -flowChange);
+        }
+
+        readLabelChanges(input, updates);
+    }
+
+    /**
+     * Reads changed labels or distances of boundary nodes and queues each for the region that holds it as a ghost
+     */
+    private static void readLabelChanges(DataInputStream input, BoundaryUpdates[] updates) throws IOException {
+        int changedLabels = input.readInt();
+        for (int i = 0; i < changedLabels; i++) {
+            int targetRegion = input.readInt();
+            int node = input.readInt();
+            int label = input.readInt();
+            updates[targetRegion].addLabel(node, label);
+        }
+    }
+
+    /**
+     * Greedily gives every region the lowest colour none of its neighbours has
+     */
+    private static int[] colourRegions(int[][] neighbours) {
+        int regionCount = neighbours.length;
+        int[] colour = new int[regionCount];
+        Arrays.fill(colour, -1);
+        for (int region = 0; region < regionCount; region++) {
+            boolean[] used = new boolean[regionCount];
+            for (int neighbour : neighbours[region]) {
+                if (colour[neighbour] >= 0) {
+                    used[colour[neighbour]] = true;
+                }
+            }
+            int lowest = 0;
+            while (used[lowest]) {
+                lowest++;
+            }
+            colour[region] = lowest;
+        }
+        return colour;
+    }
+
+    private static boolean anyTrue(boolean[] values) {
+        for (boolean value : values) {
+            if (value) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Gathers the sink excess and the label values in use, picks an unused label as the cut and has the workers sum
+     * its capacity and report which of their nodes are on the source side, mapped back to the original node indices
+     */
+    private static DistributedResult collectResult(Connection[] connections, int numberOfNodes, int[] firstNode,
+                                                   NodeReordering reordering, int rounds) throws IOException {
+        long maxFlow = 0;
+        BitSet usedLabels = new BitSet(numberOfNodes + 1);
+        for (Connection connection : connections) {
+            connection.output.writeByte(RegionWorker.REPORT_LABELS);
+            connection.output.flush();
+        }
+        for (Connection connection : connections) {
+            maxFlow += connection.input.readLong();
+            usedLabels.or(readBitSet(connection.input));
+        }
+
+        // the sink has label 0 and the source n, so one of the n - 1 labels in between is unused by the other n - 2 nodes
+        int gap = usedLabels.nextClearBit(1);
+
+        for (Connection connection : connections) {
+            connection.output.writeByte(RegionWorker.CUT);
+            connection.output.writeInt(gap);
+            connection.output.flush();
+        }
+        long cutCapacity = 0;
+        BitSet sourceSide = new BitSet(numberOfNodes);
+        for (int region = 0; region < connections.length; region++) {
+            cutCapacity += connections[region].input.readLong();
+            BitSet regionSourceSide = readBitSet(connections[region].input);
+            for (int node = regionSourceSide.nextSetBit(0); node >= 0; node = regionSourceSide.nextSetBit(node + 1)) {
+                int reorderedNode = firstNode[region] + node;
+                sourceSide.set(reordering == null ? reorderedNode : reordering.toOriginalNode(reorderedNode));
+            }
+        }
+        return new DistributedResult(maxFlow, cutCapacity, sourceSide, rounds);
+    }
+
+    private static BitSet readBitSet(DataInputStream input) throws IOException {
+        byte[] bytes = new byte[input.readInt()];
+        input.readFully(bytes);
+        return BitSet.valueOf(bytes);
+    }
+
+    private static void shutDown(Connection[] connections, List<Process> processes) {
+        for (Connection connection : connections) {
+            if (connection == null) {
+                continue;
+            }
+            try {
+                connection.output.writeByte(RegionWorker.SHUTDOWN);
+                connection.output.flush();
+                connection.socket.close();
+            } catch (IOException e) {
+                // the worker is already gone; it is destroyed below if still running
+            }
+        }
+        for (Process process : processes) {
+            try {
+                if (!process.waitFor(SHUTDOWN_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                    process.destroyForcibly();
+                }
+            } catch (InterruptedException e) {
+                process.destroyForcibly();
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /**
+     * Writes the command that hands a worker its region
+     */
+    @FunctionalInterface
+    private interface RegionSender {
+        void send(DataOutputStream output, int region) throws IOException;
+    }
+
+    /**
+     * A socket to one worker with buffered streams
+     */
+    private static final class Connection {
+        private final Socket socket;
+        private final DataInputStream input;
+        private final DataOutputStream output;
+
+        private Connection(Socket socket) throws IOException {
+            this.socket = socket;
+            socket.setTcpNoDelay(true);
+            this.input = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+            this.output = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+        }
+    }
+
+    /**
+     * Flow changes on residual edges and ghost labels waiting to be sent to one region
+     */
+    private static final class BoundaryUpdates {
+        private int[] edges = new int[64];
+        private int edgeCount;
+        private int[] labels = new int[64];
+        private int labelCount;
+
+        private void addEdge(int edge, int flowChange) {
+            if (2 * edgeCount + 2 > edges.length) {
+                edges = Arrays.copyOf(edges, edges.length * 2);
+            }
+            edges[2 * edgeCount] = edge;
+            edges[2 * edgeCount + 1] = flowChange;
+            edgeCount++;
+        }
+
+        private void addLabel(int node, int label) {
+            if (2 * labelCount + 2 > labels.length) {
+                labels = Arrays.copyOf(labels, labels.length * 2);
+            }
+            labels[2 * labelCount] = node;
+            labels[2 * labelCount + 1] = label;
+            labelCount++;
+        }
+
+        private boolean isEmpty() {
+            return edgeCount == 0 && labelCount == 0;
+        }
+
+        private void send(DataOutputStream output) throws IOException {
+            output.writeByte(RegionWorker.APPLY);
+            output.writeInt(edgeCount);
+            for (int i = 0; i < 2 * edgeCount; i++) {
+                output.writeInt(edges[i]);
+            }
+            output.writeInt(labelCount);
+            for (int i = 0; i < 2 * labelCount; i++) {
+                output.writeInt(labels[i]);
+            }
+            output.flush();
+            edgeCount = 0;
+            labelCount = 0;
+        }
+
+        private void sendLabels(DataOutputStream output, byte command) throws IOException {
+            output.writeByte(command);
+            output.writeInt(labelCount);
+            for (int i = 0; i < 2 * labelCount; i++) {
+                output.writeInt(labels[i]);
+            }
+            output.flush();
+            labelCount = 0;
+        }
+    }
+}
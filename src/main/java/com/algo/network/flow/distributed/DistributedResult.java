@@ -0,0 +1,67 @@
+/**
+ * Holds the result of a distributed maximum flow computation
+ * Author: Soshan Wijayarathne
+ * IIT id: 20230427
+ * UOW id: w2051662
+ */
+package com.algo.network.flow.distributed;
+
+import java.util.BitSet;
+
+/**
+ * The DistributedResult class holds the maximum flow value assembled from all regions and the minimum cut
+ * derived from the final labels
+ */
+public final class DistributedResult {
+
+    private final long maxFlow;
+    private final long cutCapacity;
+    private final BitSet sourceSide;
+    private final int rounds;
+
+    /**
+     * Constructs a distributed result
+     *
+     * @param maxFlow the excess that reached the sink
+     * @param cutCapacity the capacity of the minimum cut
+     * @param sourceSide the nodes on the source side of the minimum cut
+     * @param rounds the number of region discharges the coordinator ran
+     */
+    public DistributedResult(long maxFlow, long cutCapacity, BitSet sourceSide, int rounds) {
+        this.maxFlow = maxFlow;
+        this.cutCapacity = cutCapacity;
+        this.sourceSide = sourceSide;
+        this.rounds = rounds;
+    }
+
+    public long getMaxFlow() {
+        return maxFlow;
+    }
+
+    public long getCutCapacity() {
+        return cutCapacity;
+    }
+
+    public int getRounds() {
+        return rounds;
+    }
+
+    /**
+     * Returns whether the node is on the source side of the minimum cut
+     *
+     * @param node the node index
+     * @return true if the node is on the source side
+     */
+    public boolean isOnSourceSide(int node) {
+        return sourceSide.get(node);
+    }
+
+    @Override
+    public String toString() {
+        return "DistributedResult{" +
+                "maxFlow=" + maxFlow +
+                ", cutCapacity=" + cutCapacity +
+                ", rounds=" + rounds +
+                '}';
+    }
+}
@@ -0,0 +1,773 @@
+/**
+ * Runs push-relabel on one region of a partitioned flow network in its own process
+ * Author: Soshan Wijayarathne
+ * IIT id: 20230427
+ * UOW id: w2051662
+ */
+package com.algo.network.flow.distributed;
+
+import com.algo.network.flow.parser.ParallelParser;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.util.Arrays;
+import java.util.BitSet;
+
+/**
+ * The RegionWorker class holds one region of a network partitioned by {@link DistributedMaxFlow}: the nodes it
+ * owns, every edge leaving them, and a ghost copy of each node in another region that those edges reach. It runs the
+ * first phase of push-relabel (computing a maximum preflow) on its owned nodes, treating ghost labels as fixed, and
+ * exchanges boundary flow and labels with the coordinator over a socket.
+ * <p>
+ * A region is either sent by the coordinator or read by the worker itself from the input file, keeping only the
+ * lines that touch its nodes. Every edge pair that crosses two regions has a cross edge id known to both of them, so
+ * flow pushed across the boundary is exchanged by id and no process needs global edge indices.
+ * <p>
+ * The coordinator never runs two neighbouring regions at the same time, so the ghost labels a worker sees are
+ * always current and every push and relabel it makes is also valid for the whole network.
+ */
+public class RegionWorker {
+
+    static final byte INIT = 1;
+    static final byte INIT_FROM_FILE = 2;
+    static final byte DISCHARGE = 3;
+    static final byte APPLY = 4;
+    static final byte RELABEL_BEGIN = 5;
+    static final byte RELABEL_STEP = 6;
+    static final byte RELABEL_END = 7;
+    static final byte REPORT_LABELS = 8;
+    static final byte CUT = 9;
+    static final byte SHUTDOWN = 10;
+
+    /**
+     * Distance of a node that has not been reached from the sink during a global relabel
+     */
+    private static final int UNREACHED = Integer.MAX_VALUE;
+
+    private int numberOfNodes;
+    private int sourceNode;
+    private int[] regionFirstNode;
+    private int firstOwnedNode;
+    private int ownedCount;
+    private int sourceLocal;
+    private int sinkLocal;
+
+    // edges leaving owned nodes; local node indices are owned nodes first, then ghosts
+    private int[] firstEdge;
+    private int[] edgeSource;
+    private int[] edgeTarget;
+    private int[] edgeCapacity;
+    private int[] edgeReverse;
+    private int[] flow;
+
+    // global indices of the ghosts, sorted so that a ghost's index is its position
+    private int[] ghostGlobal;
+    private int[] ghostFirstIncoming;
+    private int[] ghostIncomingEdges;
+
+    private int[] label;
+    private long[] excess;
+    private int[] currentEdge;
+
+    // owned nodes with excess and a label below n, kept between discharges in a ring buffer that queued bounds
+    private int[] active;
+    private int activeHead;
+    private int activeCount;
+    private boolean[] queued;
+
+    // edges scanned by relabels since the last global relabel, and the budget that triggers the next one
+    private long relabelWork;
+    private long relabelBudget;
+
+    // distances to the sink during a global relabel, for owned nodes and ghosts, and as last reported
+    private int[] distance;
+    private int[] reportedDistance;
+
+    // cross edges with their ids and the region of their target, and the ids sorted for lookup
+    private int[] crossEdges;
+    private int[] crossIds;
+    private int[] crossRegion;
+    private long[] sortedCrossIds;
+
+    // owned nodes with cross edges, and for each the regions that hold it as a ghost
+    private int[] boundaryNodes;
+    private int[] boundaryFirstRegion;
+    private int[] boundaryRegions;
+
+    // flow on cross edges and labels of boundary nodes as last reported to the coordinator
+    private int[] reportedFlow;
+    private int[] reportedLabel;
+
+    /**
+     * Connects to the coordinator and serves its commands until told to shut down
+     *
+     * @param args the coordinator port and the index of this worker's region
+     * @throws IOException if the connection fails
+     */
+    public static void main(String[] args) throws IOException {
+        int port = Integer.parseInt(args[0]);
+        int region = Integer.parseInt(args[1]);
+        try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), port)) {
+            socket.setTcpNoDelay(true);
+            DataInputStream input = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+            DataOutputStream output = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+            output.writeInt(region);
+            output.flush();
+            new RegionWorker().serve(input, output);
+        }
+    }
+
+    /**
+     * Answers coordinator commands until a shutdown command arrives
+     */
+    void serve(DataInputStream input, DataOutputStream output) throws IOException {
+        while (true) {
+            byte command = input.readByte();
+            switch (command) {
+                case INIT:
+                    readPartition(input);
+                    readRegion(input);
+                    writeNeighbourRegions(output);
+                    break;
+                case INIT_FROM_FILE:
+                    String filename = input.readUTF();
+                    int region = readPartition(input);
+                    loadRegion(filename, region == 0);
+                    writeNeighbourRegions(output);
+                    break;
+                case DISCHARGE:
+                    discharge();
+                    writeBoundaryChanges(output);
+                    output.writeBoolean(relabelWork > relabelBudget);
+                    break;
+                case APPLY:
+                    applyBoundaryChanges(input);
+                    break;
+                case RELABEL_BEGIN:
+                    distance = new int[ownedCount + ghostGlobal.length];
+                    Arrays.fill(distance, UNREACHED);
+                    reportedDistance = new int[boundaryNodes.length];
+                    Arrays.fill(reportedDistance, UNREACHED);
+                    computeDistances();
+                    writeBoundaryValues(output, distance, reportedDistance);
+                    break;
+                case RELABEL_STEP:
+                    applyGhostDistances(input);
+                    computeDistances();
+                    writeBoundaryValues(output, distance, reportedDistance);
+                    break;
+                case RELABEL_END:
+                    applyGhostDistances(input);
+                    commitDistances();
+                    output.writeBoolean(hasWork());
+                    break;
+                case REPORT_LABELS:
+                    output.writeLong(sinkLocal >= 0 ? excess[sinkLocal] : 0);
+                    BitSet usedLabels = new BitSet(numberOfNodes + 1);
+                    for (int node = 0; node < ownedCount; node++) {
+                        usedLabels.set(label[node]);
+                    }
+                    writeBitSet(output, usedLabels);
+                    break;
+                case CUT:
+                    int gap = input.readInt();
+                    output.writeLong(computeCutCapacity(gap));
+                    BitSet sourceSide = new BitSet(ownedCount);
+                    for (int node = 0; node < ownedCount; node++) {
+                        sourceSide.set(node, label[node] > gap);
+                    }
+                    writeBitSet(output, sourceSide);
+                    break;
+                case SHUTDOWN:
+                    return;
+                default:
+                    throw new IOException("Unknown command " + command);
+            }
+            output.flush();
+        }
+    }
+
+    /**
+     * Reads the network size, terminals, region boundaries and this worker's region
+     *
+     * @return the index of this worker's region
+     */
+    private int readPartition(DataInputStream input) throws IOException {
+        numberOfNodes = input.readInt();
+        sourceNode = input.readInt();
+        int sinkNode = input.readInt();
+        regionFirstNode = new int[input.readInt() + 1];
+        for (int i = 0; i < regionFirstNode.length; i++) {
+            regionFirstNode[i] = input.readInt();
+        }
+        int region = input.readInt();
+        firstOwnedNode = regionFirstNode[region];
+        ownedCount = regionFirstNode[region + 1] - firstOwnedNode;
+        sourceLocal = isOwned(sourceNode) ? sourceNode - firstOwnedNode : -1;
+        sinkLocal = isOwned(sinkNode) ? sinkNode - firstOwnedNode : -1;
+        return region;
+    }
+
+    /**
+     * Reads the region's edges from the coordinator. Each edge comes with its target, capacity and a link that is
+     * either the local index of its reverse edge or, for a cross edge, {@code -(id + 1)}.
+     */
+    private void readRegion(DataInputStream input) throws IOException {
+        int[] offsets = new int[ownedCount + 1];
+        for (int node = 0; node <= ownedCount; node++) {
+            offsets[node] = input.readInt();
+        }
+        int numberOfEdges = offsets[ownedCount];
+        int[] targets = new int[numberOfEdges];
+        int[] capacities = new int[numberOfEdges];
+        int[] links = new int[numberOfEdges];
+        for (int edge = 0; edge < numberOfEdges; edge++) {
+            targets[edge] = input.readInt();
+            capacities[edge] = input.readInt();
+            links[edge] = input.readInt();
+        }
+        buildRegion(offsets, targets, capacities, links);
+    }
+
+    /**
+     * Reads the region's edges straight from the input file, keeping only the lines that touch owned nodes. The
+     * position of a line among the valid edges of the file is its cross edge id, which every worker agrees on.
+     */
+    private void loadRegion(String filename, boolean printWarnings) throws IOException {
+        int[][] lines = new int[4][1024];
+        int[] lineCount = new int[1];
+        int[] edgeOrdinal = new int[1];
+        int[] degree = new int[ownedCount + 1];
+
+        ParallelParser.forEachEdge(filename, printWarnings, (fromNode, toNode, capacity) -> {
+            int ordinal = edgeOrdinal[0]++;
+            boolean ownsFrom = isOwned(fromNode);
+            boolean ownsTo = isOwned(toNode);
+            if (!ownsFrom && !ownsTo) {
+                return;
+            }
+            if (lineCount[0] == lines[0].length) {
+                for (int column = 0; column < lines.length; column++) {
+                    lines[column] = Arrays.copyOf(lines[column], lines[column].length * 2);
+                }
+            }
+            lines[0][lineCount[0]] = fromNode;
+            lines[1][lineCount[0]] = toNode;
+            lines[2][lineCount[0]] = capacity;
+            lines[3][lineCount[0]] = ordinal;
+            lineCount[0]++;
+            if (ownsFrom) {
+                degree[fromNode - firstOwnedNode + 1]++;
+            }
+            if (ownsTo) {
+                degree[toNode - firstOwnedNode + 1]++;
+            }
+        });
+
+        int[] offsets = degree;
+        for (int node = 0; node < ownedCount; node++) {
+            offsets[node + 1] += offsets[node];
+        }
+        int numberOfEdges = offsets[ownedCount];
+        int[] position = Arrays.copyOf(offsets, ownedCount);
+        int[] targets = new int[numberOfEdges];
+        int[] capacities = new int[numberOfEdges];
+        int[] links = new int[numberOfEdges];
+
+        //add every line the way FlowNetwork.addEdge does, so each node keeps its edges in file order
+        for (int line = 0; line < lineCount[0]; line++) {
+            int fromNode = lines[0][line];
+            int toNode = lines[1][line];
+            int crossLink = -(lines[3][line] + 1);
+            int forwardEdge = -1;
+            int backwardEdge = -1;
+            if (isOwned(fromNode)) {
+                forwardEdge = position[fromNode - firstOwnedNode]++;
+                targets[forwardEdge] = toNode;
+                capacities[forwardEdge] = lines[2][line];
+                links[forwardEdge] = crossLink;
+            }
+            if (isOwned(toNode)) {
+                backwardEdge = position[toNode - firstOwnedNode]++;
+                targets[backwardEdge] = fromNode;
+                links[backwardEdge] = crossLink;
+            }
+            if (forwardEdge >= 0 && backwardEdge >= 0) {
+                links[forwardEdge] = backwardEdge;
+                links[backwardEdge] = forwardEdge;
+            }
+        }
+        buildRegion(offsets, targets, capacities, links);
+    }
+
+    /**
+     * Builds the local arrays, ghost nodes and cross edge lookup, and saturates the source's edges if this region
+     * owns it
+     */
+    private void buildRegion(int[] offsets, int[] targets, int[] capacities, int[] links) {
+        firstEdge = offsets;
+        int numberOfEdges = firstEdge[ownedCount];
+        edgeSource = new int[numberOfEdges];
+        edgeTarget = new int[numberOfEdges];
+        edgeCapacity = capacities;
+        edgeReverse = new int[numberOfEdges];
+        flow = new int[numberOfEdges];
+
+        int crossCount = 0;
+        for (int edge = 0; edge < numberOfEdges; edge++) {
+            if (links[edge] < 0) {
+                crossCount++;
+            }
+        }
+        crossEdges = new int[crossCount];
+        crossCount = 0;
+        for (int node = 0; node < ownedCount; node++) {
+            for (int edge = firstEdge[node]; edge < firstEdge[node + 1]; edge++) {
+                edgeSource[edge] = node;
+                if (links[edge] < 0) {
+                    crossEdges[crossCount++] = edge;
+                }
+            }
+        }
+        ghostGlobal = Arrays.stream(crossEdges).map(edge -> targets[edge]).sorted().distinct().toArray();
+        for (int edge = 0; edge < numberOfEdges; edge++) {
+            if (links[edge] >= 0) {
+                edgeTarget[edge] = targets[edge] - firstOwnedNode;
+                edgeReverse[edge] = links[edge];
+            } else {
+                edgeTarget[edge] = ownedCount + Arrays.binarySearch(ghostGlobal, targets[edge]);
+                edgeReverse[edge] = -1;
+            }
+        }
+        crossIds = new int[crossEdges.length];
+        crossRegion = new int[crossEdges.length];
+        sortedCrossIds = new long[crossEdges.length];
+        for (int i = 0; i < crossEdges.length; i++) {
+            int edge = crossEdges[i];
+            crossIds[i] = -links[edge] - 1;
+            crossRegion[i] = regionOf(targets[edge]);
+            sortedCrossIds[i] = ((long) crossIds[i] << 32) | i;
+        }
+        Arrays.sort(sortedCrossIds);
+        reportedFlow = new int[crossEdges.length];
+        buildGhostIncoming();
+
+        label = new int[ownedCount + ghostGlobal.length];
+        excess = new long[ownedCount];
+        currentEdge = Arrays.copyOf(firstEdge, ownedCount);
+        active = new int[ownedCount];
+        queued = new boolean[ownedCount];
+        relabelBudget = 6L * ownedCount + numberOfEdges;
+        if (sourceLocal >= 0) {
+            label[sourceLocal] = numberOfNodes;
+        }
+        int sourceGhost = Arrays.binarySearch(ghostGlobal, sourceNode);
+        if (sourceGhost >= 0) {
+            label[ownedCount + sourceGhost] = numberOfNodes;
+        }
+
+        buildBoundaryNodes();
+        reportedLabel = new int[boundaryNodes.length];
+        for (int i = 0; i < boundaryNodes.length; i++) {
+            reportedLabel[i] = label[boundaryNodes[i]];
+        }
+
+        if (sourceLocal >= 0) {
+            for (int edge = firstEdge[sourceLocal]; edge < firstEdge[sourceLocal + 1]; edge++) {
+                int residual = edgeCapacity[edge] - flow[edge];
+                if (residual > 0) {
+                    push(sourceLocal, edge, residual);
+                }
+            }
+        }
+    }
+
+    /**
+     * Writes the regions this region shares cross edges with
+     */
+    private void writeNeighbourRegions(DataOutputStream output) throws IOException {
+        int[] neighbours = Arrays.stream(crossRegion).distinct().sorted().toArray();
+        output.writeInt(neighbours.length);
+        for (int neighbour : neighbours) {
+            output.writeInt(neighbour);
+        }
+    }
+
+    private int regionOf(int globalNode) {
+        int position = Arrays.binarySearch(regionFirstNode, globalNode);
+        // a region may start at the node itself, otherwise the node lies in the region before the insertion point
+        return position >= 0 ? position : -position - 2;
+    }
+
+    private static void writeBitSet(DataOutputStream output, BitSet bits) throws IOException {
+        byte[] bytes = bits.toByteArray();
+        output.writeInt(bytes.length);
+        output.write(bytes);
+    }
+
+    /**
+     * Lists the owned nodes with cross edges and, for each, the distinct regions those edges lead to. Every cross
+     * edge has its residual edge in the target's region, so exactly these regions hold the node as a ghost.
+     */
+    private void buildBoundaryNodes() {
+        int[] nodes = new int[crossEdges.length];
+        int[] firstRegion = new int[crossEdges.length + 1];
+        int[] regions = new int[crossEdges.length];
+        int nodeCount = 0;
+        int regionCount = 0;
+        // cross edges were collected node by node, so the edges of one node are adjacent
+        for (int i = 0; i < crossEdges.length; i++) {
+            int node = edgeSource[crossEdges[i]];
+            if (nodeCount == 0 || nodes[nodeCount - 1] != node) {
+                firstRegion[nodeCount] = regionCount;
+                nodes[nodeCount++] = node;
+            }
+            boolean seen = false;
+            for (int j = firstRegion[nodeCount - 1]; j < regionCount && !seen; j++) {
+                seen = regions[j] == crossRegion[i];
+            }
+            if (!seen) {
+                regions[regionCount++] = crossRegion[i];
+            }
+        }
+        firstRegion[nodeCount] = regionCount;
+        boundaryNodes = Arrays.copyOf(nodes, nodeCount);
+        boundaryFirstRegion = Arrays.copyOf(firstRegion, nodeCount + 1);
+        boundaryRegions = Arrays.copyOf(regions, regionCount);
+    }
+
+    /**
+     * Lists, for every ghost, the owned edges pointing at it
+     */
+    private void buildGhostIncoming() {
+        ghostFirstIncoming = new int[ghostGlobal.length + 1];
+        for (int edge : crossEdges) {
+            ghostFirstIncoming[edgeTarget[edge] - ownedCount + 1]++;
+        }
+        for (int ghost = 0; ghost < ghostGlobal.length; ghost++) {
+            ghostFirstIncoming[ghost + 1] += ghostFirstIncoming[ghost];
+        }
+        int[] position = Arrays.copyOf(ghostFirstIncoming, ghostGlobal.length);
+        ghostIncomingEdges = new int[crossEdges.length];
+        for (int edge : crossEdges) {
+            ghostIncomingEdges[position[edgeTarget[edge] - ownedCount]++] = edge;
+        }
+    }
+
+    private boolean isOwned(int globalNode) {
+        return globalNode >= firstOwnedNode && globalNode < firstOwnedNode + ownedCount;
+    }
+
+    private boolean isTerminal(int node) {
+        return node == sourceLocal || node == sinkLocal;
+    }
+
+    private int residual(int edge) {
+        return edgeCapacity[edge] - flow[edge];
+    }
+
+    /**
+     * Computes the residual distance to the sink of every owned node within the region, where reaching a ghost costs
+     * that ghost's current distance. The coordinator repeats this on every region, exchanging the distances of
+     * boundary nodes, until none changes; the distances then only ever decreased and are exact for the whole
+     * network, which makes them the highest valid labels.
+     */
+    private void computeDistances() {
+        //ghosts with a known distance, in increasing distance order
+        long[] seeds = new long[ghostGlobal.length];
+        int seedCount = 0;
+        for (int ghost = 0; ghost < ghostGlobal.length; ghost++) {
+            int ghostDistance = distance[ownedCount + ghost];
+            if (ghostDistance < numberOfNodes) {
+                seeds[seedCount++] = ((long) ghostDistance << 32) | ghost;
+            }
+        }
+        Arrays.sort(seeds, 0, seedCount);
+
+        int[] regionDistance = new int[ownedCount];
+        Arrays.fill(regionDistance, UNREACHED);
+        int[] queue = new int[ownedCount];
+        int head = 0;
+        int tail = 0;
+        if (sinkLocal >= 0) {
+            regionDistance[sinkLocal] = 0;
+            queue[tail++] = sinkLocal;
+        }
+
+        int seedPosition = 0;
+        while (head < tail || seedPosition < seedCount) {
+            // the queue holds non-decreasing distances, so merging it with the sorted seeds visits nodes in order
+            boolean takeSeed = head == tail
+                    || (seedPosition < seedCount && (int) (seeds[seedPosition] >>> 32) < regionDistance[queue[head]]);
+            if (takeSeed) {
+                int ghost = (int) seeds[seedPosition++];
+                int ghostDistance = distance[ownedCount + ghost];
+                for (int i = ghostFirstIncoming[ghost]; i < ghostFirstIncoming[ghost + 1]; i++) {
+                    int edge = ghostIncomingEdges[i];
+                    int node = edgeSource[edge];
+                    if (regionDistance[node] == UNREACHED && !isTerminal(node) && residual(edge) > 0) {
+                        regionDistance[node] = ghostDistance + 1;
+                        queue[tail++] = node;
+                    }
+                }
+            } else {
+                int node = queue[head++];
+                for (int edge = firstEdge[node]; edge < firstEdge[node + 1]; edge++) {
+                    int reverse = edgeReverse[edge];
+                    if (reverse < 0) {
+                        continue;
+                    }
+                    int previous = edgeTarget[edge];
+                    if (regionDistance[previous] == UNREACHED && !isTerminal(previous) && residual(reverse) > 0) {
+                        regionDistance[previous] = regionDistance[node] + 1;
+                        queue[tail++] = previous;
+                    }
+                }
+            }
+        }
+        System.arraycopy(regionDistance, 0, distance, 0, ownedCount);
+    }
+
+    /**
+     * Writes the boundary nodes whose value changed since the last report, once for every region that holds the node
+     * as a ghost, and records the values as reported
+     *
+     * @param values the label or distance of every owned node
+     * @param reported the value of every boundary node as last reported
+     */
+    private void writeBoundaryValues(DataOutputStream output, int[] values, int[] reported) throws IOException {
+        int changed = 0;
+        for (int i = 0; i < boundaryNodes.length; i++) {
+            if (values[boundaryNodes[i]] != reported[i]) {
+                changed += boundaryFirstRegion[i + 1] - boundaryFirstRegion[i];
+            }
+        }
+        output.writeInt(changed);
+        for (int i = 0; i < boundaryNodes.length; i++) {
+            int value = values[boundaryNodes[i]];
+            if (value == reported[i]) {
+                continue;
+            }
+            for (int j = boundaryFirstRegion[i]; j < boundaryFirstRegion[i + 1]; j++) {
+                output.writeInt(boundaryRegions[j]);
+                output.writeInt(firstOwnedNode + boundaryNodes[i]);
+                output.writeInt(value);
+            }
+            reported[i] = value;
+        }
+    }
+
+    private void applyGhostDistances(DataInputStream input) throws IOException {
+        int changed = input.readInt();
+        for (int i = 0; i < changed; i++) {
+            int ghost = findGhost(input.readInt());
+            distance[ownedCount + ghost] = input.readInt();
+        }
+    }
+
+    /**
+     * Replaces the labels of owned nodes and ghosts with the exact distances, capped at n, and restarts the active
+     * set from them. Every region commits the same distances for its boundary nodes that its neighbours hold for
+     * their ghosts, so the labels stay consistent without another exchange.
+     */
+    private void commitDistances() {
+        for (int node = 0; node < label.length; node++) {
+            boolean terminal = node < ownedCount ? isTerminal(node) : ghostGlobal[node - ownedCount] == sourceNode;
+            if (!terminal) {
+                label[node] = Math.min(distance[node], numberOfNodes);
+            }
+        }
+        for (int i = 0; i < boundaryNodes.length; i++) {
+            reportedLabel[i] = label[boundaryNodes[i]];
+        }
+        distance = null;
+        reportedDistance = null;
+
+        activeHead = 0;
+        activeCount = 0;
+        Arrays.fill(queued, false);
+        for (int node = 0; node < ownedCount; node++) {
+            currentEdge[node] = firstEdge[node];
+            activate(node);
+        }
+        relabelWork = 0;
+    }
+
+    /**
+     * Pushes and relabels active nodes in FIFO order until none has excess and a label below n
+     */
+    private void discharge() {
+        while (activeCount > 0) {
+            int node = active[activeHead];
+            activeHead = activeHead + 1 == active.length ? 0 : activeHead + 1;
+            activeCount--;
+            queued[node] = false;
+            while (excess[node] > 0) {
+                int edge = currentEdge[node];
+                if (edge == firstEdge[node + 1]) {
+                    relabel(node);
+                    if (label[node] >= numberOfNodes) {
+                        break;
+                    }
+                    continue;
+                }
+                int residual = residual(edge);
+                if (residual > 0 && label[node] == label[edgeTarget[edge]] + 1) {
+                    push(node, edge, (int) Math.min(excess[node], residual));
+                } else {
+                    currentEdge[node]++;
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns whether a discharge would move flow: some node is active or flow pushed into a ghost is not reported yet
+     */
+    private boolean hasWork() {
+        if (activeCount > 0) {
+            return true;
+        }
+        for (int i = 0; i < crossEdges.length; i++) {
+            if (flow[crossEdges[i]] != reportedFlow[i]) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Adds an owned node to the active set if it has excess to move
+     */
+    private void activate(int node) {
+        if (!queued[node] && excess[node] > 0 && !isTerminal(node) && label[node] < numberOfNodes) {
+            int tail = activeHead + activeCount;
+            active[tail < active.length ? tail : tail - active.length] = node;
+            activeCount++;
+            queued[node] = true;
+        }
+    }
+
+    private void push(int node, int edge, int amount) {
+        flow[edge] += amount;
+        if (edgeReverse[edge] >= 0) {
+            flow[edgeReverse[edge]] -= amount;
+        }
+        excess[node] -= amount;
+
+        int target = edgeTarget[edge];
+        if (target < ownedCount) {
+            excess[target] += amount;
+            activate(target);
+        }
+        // flow into a ghost is reported to the coordinator as a change on the cross edge
+    }
+
+    private void relabel(int node) {
+        int lowest = numberOfNodes;
+        for (int edge = firstEdge[node]; edge < firstEdge[node + 1]; edge++) {
+            if (residual(edge) > 0) {
+                lowest = Math.min(lowest, label[edgeTarget[edge]] + 1);
+            }
+        }
+        relabelWork += firstEdge[node + 1] - firstEdge[node];
+        label[node] = Math.min(lowest, numberOfNodes);
+        currentEdge[node] = firstEdge[node];
+    }
+
+    /**
+     * Writes the flow changes on cross edges, with the region each one goes to, and the label changes of boundary
+     * nodes since the last report
+     */
+    private void writeBoundaryChanges(DataOutputStream output) throws IOException {
+        int changedEdges = 0;
+        for (int i = 0; i < crossEdges.length; i++) {
+            if (flow[crossEdges[i]] != reportedFlow[i]) {
+                changedEdges++;
+            }
+        }
+        output.writeInt(changedEdges);
+        for (int i = 0; i < crossEdges.length; i++) {
+            int edgeFlow = flow[crossEdges[i]];
+            if (edgeFlow != reportedFlow[i]) {
+                output.writeInt(crossRegion[i]);
+                output.writeInt(crossIds[i]);
+                output.writeInt(edgeFlow - reportedFlow[i]);
+                reportedFlow[i] = edgeFlow;
+            }
+        }
+        writeBoundaryValues(output, label, reportedLabel);
+    }
+
+    /**
+     * Applies flow pushed into this region across cross edges and new labels of ghost nodes
+     */
+    private void applyBoundaryChanges(DataInputStream input) throws IOException {
+        int changedEdges = input.readInt();
+        for (int i = 0; i < changedEdges; i++) {
+            int cross = findCrossEdge(input.readInt());
+            int flowChange = input.readInt();
+            int edge = crossEdges[cross];
+            flow[edge] += flowChange;
+            reportedFlow[cross] += flowChange;
+            excess[edgeSource[edge]] -= flowChange;
+            activate(edgeSource[edge]);
+        }
+
+        int changedLabels = input.readInt();
+        for (int i = 0; i < changedLabels; i++) {
+            int ghost = findGhost(input.readInt());
+            label[ownedCount + ghost] = input.readInt();
+        }
+    }
+
+    /**
+     * Returns the ghost index of a node in another region
+     */
+    private int findGhost(int globalNode) throws IOException {
+        int ghost = Arrays.binarySearch(ghostGlobal, globalNode);
+        if (ghost < 0) {
+            throw new IOException("Unknown ghost node " + globalNode);
+        }
+        return ghost;
+    }
+
+    /**
+     * Returns the position in {@code crossEdges} of the cross edge with the given id
+     */
+    private int findCrossEdge(int crossId) throws IOException {
+        // entries are (id << 32 | position), so a search for (id << 32) finds the entry at position 0 or the
+        // insertion point of the id's entry
+        int position = Arrays.binarySearch(sortedCrossIds, (long) crossId << 32);
+        if (position < 0) {
+            position = -position - 1;
+        }
+        if (position == sortedCrossIds.length || (int) (sortedCrossIds[position] >>> 32) != crossId) {
+            throw new IOException("Unknown cross edge " + crossId);
+        }
+        return (int) sortedCrossIds[position];
+    }
+
+    /**
+     * Sums the capacity of owned edges leaving {label > gap} for {label <= gap}
+     */
+    private long computeCutCapacity(int gap) {
+        long capacity = 0;
+        for (int node = 0; node < ownedCount; node++) {
+            if (label[node] <= gap) {
+                continue;
+            }
+            for (int edge = firstEdge[node]; edge < firstEdge[node + 1]; edge++) {
+                if (label[edgeTarget[edge]] <= gap) {
+                    capacity += edgeCapacity[edge];
+                }
+            }
+        }
+        return capacity;
+    }
+}
@@ -13,6 +13,7 @@ public class Edge {
 
     private final int targetNode;
     private final int capacity;
+    private final boolean original;
     private int flow;
     private Edge residualEdge;
 
@@ -23,8 +24,20 @@ public class Edge {
      * @param capacity the capcity og this edge
      */
     public Edge(int targetNode, int capacity) {
+        this(targetNode, capacity, true);
+    }
+
+    /**
+     * Constructs an edge to the specified target node, marking whether it is an edge of the input network or the
+     * residual edge added for one
+     * @param targetNode the node this edge points to
+     * @param capacity the capacity of this edge
+     * @param original true for an input edge, false for a residual edge
+     */
+    public Edge(int targetNode, int capacity, boolean original) {
         this.targetNode = targetNode;
         this.capacity = capacity;
+        this.original = original;
         this.flow = 0;
     }
 
@@ -36,6 +49,15 @@ public class Edge {
         return capacity;
     }
 
+    /**
+     * Returns whether this edge was added from the input, as opposed to being the residual edge of one
+     *
+     * @return true for an input edge
+     */
+    public boolean isOriginal() {
+        return original;
+    }
+
     public int getFlow() {
         return flow;
     }
@@ -45,7 +45,7 @@ public class FlowNetwork {
      */
     public void addEdge(int fromNode, int toNode, int capacity) {
         Edge forwardEdge = new Edge(toNode, capacity);
-        Edge backwardEdge = new Edge(fromNode, 0);
+        Edge backwardEdge = new Edge(fromNode, 0, false);
 
         //set residual edges
         forwardEdge.setResidualEdge(backwardEdge);
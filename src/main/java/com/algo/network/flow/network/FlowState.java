@@ -0,0 +1,65 @@
+/**
+ * Holds the flow values of one maximum flow computation over a shared topology
+ * Author: Soshan Wijayarathne
+ * IIT id: 20230427
+ * UOW id: w2051662
+ */
+package com.algo.network.flow.network;
+
+import java.util.Arrays;
+
+/**
+ * The FlowState class stores the flow on every edge of a {@link FlowTopology}.
+ * A state belongs to one computation at a time and can be reset in place to be reused for the next one.
+ */
+public final class FlowState {
+
+    private final FlowTopology topology;
+    private final int[] flow;
+
+    /**
+     * Constructs an empty flow state for the given topology
+     *
+     * @param topology the topology this state belongs to
+     */
+    public FlowState(FlowTopology topology) {
+        this.topology = topology;
+        this.flow = new int[topology.getNumberOfEdges()];
+    }
+
+    public FlowTopology getTopology() {
+        return topology;
+    }
+
+    public int getFlow(int edge) {
+        return flow[edge];
+    }
+
+    /**
+     * Returns residual capacity of the given edge
+     *
+     * @param edge the edge index
+     * @return the remaining capacity
+     */
+    public int getResidualCapacity(int edge) {
+        return topology.getCapacity(edge) - flow[edge];
+    }
+
+    /**
+     * Augments the flow along the given edge and its residual edge by the specified bottleneck value
+     *
+     * @param edge the edge index
+     * @param bottleneckCapacity the amount of flow to push
+     */
+    public void augmentFlow(int edge, int bottleneckCapacity) {
+        flow[edge] += bottleneckCapacity;
+        flow[topology.getReverseEdge(edge)] -= bottleneckCapacity;
+    }
+
+    /**
+     * Sets the flow of every edge back to zero without reallocating
+     */
+    public void reset() {
+        Arrays.fill(flow, 0);
+    }
+}
@@ -0,0 +1,135 @@
+/**
+ * Represents the read-only structure of a flow network in compressed arrays.
+ * Author: Soshan Wijayarathne
+ * IIT id: 20230427
+ * UOW id: w2051662
+ */
+package com.algo.network.flow.network;
+
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The FlowTopology class holds the adjacency structure and capacities of a flow network without any flow state.
+ * Edges are numbered so that the edges leaving node {@code v} occupy the range
+ * {@code [getFirstEdge(v), getFirstEdge(v + 1))}, in the same order as the adjacency list of the network they were
+ * built from. Every edge knows the index of its residual (reverse) edge.
+ * <p>
+ * A topology is never modified after construction, so a single instance can be shared by any number of threads,
+ * each keeping its own {@link FlowState}.
+ */
+public final class FlowTopology {
+
+    private final int numberOfNodes;
+    private final int[] firstEdge;
+    private final int[] edgeTarget;
+    private final int[] edgeCapacity;
+    private final int[] reverseEdge;
+
+    /**
+     * Constructs a topology from already built arrays. The arrays are used directly and must not be changed
+     * by the caller afterwards.
+     *
+     * @param numberOfNodes the total number of nodes
+     * @param firstEdge offsets of the first edge of every node, of length {@code numberOfNodes + 1}
+     * @param edgeTarget the target node of every edge
+     * @param edgeCapacity the capacity of every edge
+     * @param reverseEdge the index of the residual edge of every edge
+     */
+    public FlowTopology(int numberOfNodes, int[] firstEdge, int[] edgeTarget, int[] edgeCapacity, int[] reverseEdge) {
+        if (firstEdge.length != numberOfNodes + 1) {
+            throw new IllegalArgumentException("Expected " + (numberOfNodes + 1) + " edge offsets but got " + firstEdge.length);
+        }
+        int numberOfEdges = firstEdge[numberOfNodes];
+        if (edgeTarget.length != numberOfEdges || edgeCapacity.length != numberOfEdges || reverseEdge.length != numberOfEdges) {
+            throw new IllegalArgumentException("Edge arrays must all have length " + numberOfEdges);
+        }
+        this.numberOfNodes = numberOfNodes;
+        this.firstEdge = firstEdge;
+        this.edgeTarget = edgeTarget;
+        this.edgeCapacity = edgeCapacity;
+        this.reverseEdge = reverseEdge;
+    }
+
+    /**
+     * Builds the topology of the given network, keeping the order of its adjacency lists
+     *
+     * @param network the flow network
+     * @return the topology of the network
+     */
+    public static FlowTopology fromNetwork(FlowNetwork network) {
+        int numberOfNodes = network.getNumberOfNodes();
+        List<List<Edge>> adjacencyList = network.getAdjacencyList();
+
+        int[] firstEdge = new int[numberOfNodes + 1];
+        for (int node = 0; node < numberOfNodes; node++) {
+            firstEdge[node + 1] = firstEdge[node] + adjacencyList.get(node).size();
+        }
+
+        int numberOfEdges = firstEdge[numberOfNodes];
+        int[] edgeTarget = new int[numberOfEdges];
+        int[] edgeCapacity = new int[numberOfEdges];
+        int[] reverseEdge = new int[numberOfEdges];
+
+        //number every edge object so residual edges can be resolved to indices
+        Map<Edge, Integer> edgeIndex = new IdentityHashMap<>(numberOfEdges * 2);
+        int index = 0;
+        for (int node = 0; node < numberOfNodes; node++) {
+            for (Edge edge : adjacencyList.get(node)) {
+                edgeTarget[index] = edge.getTargetNode();
+                edgeCapacity[index] = edge.getCapacity();
+                edgeIndex.put(edge, index);
+                index++;
+            }
+        }
+
+        index = 0;
+        for (int node = 0; node < numberOfNodes; node++) {
+            for (Edge edge : adjacencyList.get(node)) {
+                reverseEdge[index++] = edgeIndex.get(edge.getResidualEdge());
+            }
+        }
+
+        return new FlowTopology(numberOfNodes, firstEdge, edgeTarget, edgeCapacity, reverseEdge);
+    }
+
+    public int getNumberOfNodes() {
+        return numberOfNodes;
+    }
+
+    public int getNumberOfEdges() {
+        return edgeTarget.length;
+    }
+
+    /**
+     * Returns the index of the first edge leaving the given node. Passing {@code getNumberOfNodes()}
+     * returns the total number of edges, so {@code getFirstEdge(node + 1)} is always the end of the node's range.
+     *
+     * @param node the node index
+     * @return the index of the node's first edge
+     */
+    public int getFirstEdge(int node) {
+        return firstEdge[node];
+    }
+
+    public int getTargetNode(int edge) {
+        return edgeTarget[edge];
+    }
+
+    public int getCapacity(int edge) {
+        return edgeCapacity[edge];
+    }
+
+    public int getReverseEdge(int edge) {
+        return reverseEdge[edge];
+    }
+
+    @Override
+    public String toString() {
+        return "FlowTopology{" +
+                "numberOfNodes=" + numberOfNodes +
+                ", numberOfEdges=" + getNumberOfEdges() +
+                '}';
+    }
+}
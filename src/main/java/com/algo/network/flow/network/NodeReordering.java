@@ -0,0 +1,237 @@
+/**
+ * Renumbers the nodes of a flow network for better memory locality
+ * Author: Soshan Wijayarathne
+ * IIT id: 20230427
+ * UOW id: w2051662
+ */
+package com.algo.network.flow.network;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * The NodeReordering class is a permutation of node indices. Applying it to a network returns a copy in which
+ * node {@code v} of the copy is node {@link #toOriginalNode(int) toOriginalNode(v)} of the input, with the adjacency
+ * storage laid out in the new node order. Nodes that are close in the graph end up close in memory, so the BFS in
+ * the maximum flow algorithms touches fewer cache lines. Results computed on the reordered network are mapped back
+ * with {@link #toOriginalNode(int)} and {@link #toOriginalPath(List)}; the maximum flow value itself is unchanged.
+ */
+public final class NodeReordering {
+
+    private final int[] newToOriginal;
+    private final int[] originalToNew;
+
+    private NodeReordering(int[] newToOriginal) {
+        this.newToOriginal = newToOriginal;
+        this.originalToNew = new int[newToOriginal.length];
+        Arrays.fill(originalToNew, -1);
+        for (int newNode = 0; newNode < newToOriginal.length; newNode++) {
+            int originalNode = newToOriginal[newNode];
+            if (originalNode < 0 || originalNode >= newToOriginal.length || originalToNew[originalNode] != -1) {
+                throw new IllegalArgumentException("Node order is not a permutation of 0 to " + (newToOriginal.length - 1));
+            }
+            originalToNew[originalNode] = newNode;
+        }
+    }
+
+    /**
+     * Creates a reordering from an explicit order
+     *
+     * @param newToOriginal the original index of every new node, in new order
+     * @return the reordering
+     */
+    public static NodeReordering fromOrder(int[] newToOriginal) {
+        return new NodeReordering(newToOriginal.clone());
+    }
+
+    /**
+     * Numbers nodes in the order a breadth-first search from the source reaches them, ignoring edge direction.
+     * Nodes the search does not reach keep their relative order after all reached nodes.
+     *
+     * @param network the flow network
+     * @return the reordering
+     */
+    public static NodeReordering breadthFirstOrder(FlowNetwork network) {
+        FlowTopology topology = FlowTopology.fromNetwork(network);
+        int numberOfNodes = topology.getNumberOfNodes();
+        int[] order = new int[numberOfNodes];
+        boolean[] visited = new boolean[numberOfNodes];
+
+        int count = breadthFirstVisit(topology, network.getSourceNode(), visited, order, 0, false);
+        for (int node = 0; node < numberOfNodes; node++) {
+            if (!visited[node]) {
+                visited[node] = true;
+                order[count++] = node;
+            }
+        }
+        return new NodeReordering(order);
+    }
+
+    /**
+     * Numbers nodes by the reverse Cuthill-McKee ordering, which keeps the neighbours of every node within a
+     * narrow band of indices. Each connected component is started from one of its nodes of minimum degree.
+     *
+     * @param network the flow network
+     * @return the reordering
+     */
+    public static NodeReordering reverseCuthillMcKee(FlowNetwork network) {
+        FlowTopology topology = FlowTopology.fromNetwork(network);
+        int numberOfNodes = topology.getNumberOfNodes();
+        int[] order = new int[numberOfNodes];
+        boolean[] visited = new boolean[numberOfNodes];
+
+        //visit components starting from their lowest degree node
+        Integer[] byDegree = new Integer[numberOfNodes];
+        for (int node = 0; node < numberOfNodes; node++) {
+            byDegree[node] = node;
+        }
+        Arrays.sort(byDegree, (a, b) -> Integer.compare(degree(topology, a), degree(topology, b)));
+
+        int count = 0;
+        for (int start : byDegree) {
+            if (!visited[start]) {
+                count = breadthFirstVisit(topology, start, visited, order, count, true);
+            }
+        }
+
+        for (int i = 0, j = numberOfNodes - 1; i < j; i++, j--) {
+            int swap = order[i];
+            order[i] = order[j];
+            order[j] = swap;
+        }
+        return new NodeReordering(order);
+    }
+
+    /**
+     * Appends the nodes reached from the start node to the order, treating every edge as undirected
+     *
+     * @return the number of nodes in the order afterwards
+     */
+    private static int breadthFirstVisit(FlowTopology topology, int startNode, boolean[] visited, int[] order,
+                                         int count, boolean neighboursByDegree) {
+        visited[startNode] = true;
+        order[count++] = startNode;
+        int head = count - 1;
+        List<Integer> neighbours = new ArrayList<>();
+
+        while (head < count) {
+            int currentNode = order[head++];
+            neighbours.clear();
+            int end = topology.getFirstEdge(currentNode + 1);
+            for (int edge = topology.getFirstEdge(currentNode); edge < end; edge++) {
+                int nextNode = topology.getTargetNode(edge);
+                if (!visited[nextNode]) {
+                    visited[nextNode] = true;
+                    neighbours.add(nextNode);
+                }
+            }
+            if (neighboursByDegree) {
+                neighbours.sort((a, b) -> Integer.compare(degree(topology, a), degree(topology, b)));
+            }
+            for (int nextNode : neighbours) {
+                order[count++] = nextNode;
+            }
+        }
+        return count;
+    }
+
+    private static int degree(FlowTopology topology, int node) {
+        return topology.getFirstEdge(node + 1) - topology.getFirstEdge(node);
+    }
+
+    public int getNumberOfNodes() {
+        return newToOriginal.length;
+    }
+
+    public int toOriginalNode(int reorderedNode) {
+        return newToOriginal[reorderedNode];
+    }
+
+    public int toReorderedNode(int originalNode) {
+        return originalToNew[originalNode];
+    }
+
+    /**
+     * Maps a path of reordered node indices back to original node indices
+     *
+     * @param reorderedPath the path in reordered indices
+     * @return the same path in original indices
+     */
+    public List<Integer> toOriginalPath(List<Integer> reorderedPath) {
+        List<Integer> path = new ArrayList<>(reorderedPath.size());
+        for (int node : reorderedPath) {
+            path.add(newToOriginal[node]);
+        }
+        return path;
+    }
+
+    /**
+     * Builds a renumbered copy of an unsolved network. Edges are added node by node in the new order, so each
+     * node's edges are also allocated next to those of its new neighbours.
+     *
+     * @param network the flow network
+     * @return the renumbered network with source and sink mapped
+     */
+    public FlowNetwork apply(FlowNetwork network) {
+        checkSize(network.getNumberOfNodes());
+        List<List<Edge>> adjacencyList = network.getAdjacencyList();
+        FlowNetwork reordered = new FlowNetwork(network.getNumberOfNodes(),
+                originalToNew[network.getSourceNode()], originalToNew[network.getSinkNode()]);
+
+        for (int newNode = 0; newNode < newToOriginal.length; newNode++) {
+            for (Edge edge : adjacencyList.get(newToOriginal[newNode])) {
+                if (edge.isOriginal()) {
+                    reordered.addEdge(newNode, originalToNew[edge.getTargetNode()], edge.getCapacity());
+                }
+            }
+        }
+        return reordered;
+    }
+
+    /**
+     * Builds a renumbered copy of a topology, permuting the edge arrays so that the edges of new node {@code v}
+     * are stored in the {@code v}-th range
+     *
+     * @param topology the topology
+     * @return the renumbered topology
+     */
+    public FlowTopology apply(FlowTopology topology) {
+        int numberOfNodes = topology.getNumberOfNodes();
+        checkSize(numberOfNodes);
+        int numberOfEdges = topology.getNumberOfEdges();
+
+        int[] firstEdge = new int[numberOfNodes + 1];
+        for (int newNode = 0; newNode < numberOfNodes; newNode++) {
+            firstEdge[newNode + 1] = firstEdge[newNode] + degree(topology, newToOriginal[newNode]);
+        }
+
+        //new position of every original edge
+        int[] newEdgeIndex = new int[numberOfEdges];
+        for (int originalNode = 0; originalNode < numberOfNodes; originalNode++) {
+            int offset = firstEdge[originalToNew[originalNode]] - topology.getFirstEdge(originalNode);
+            int end = topology.getFirstEdge(originalNode + 1);
+            for (int edge = topology.getFirstEdge(originalNode); edge < end; edge++) {
+                newEdgeIndex[edge] = edge + offset;
+            }
+        }
+
+        int[] edgeTarget = new int[numberOfEdges];
+        int[] edgeCapacity = new int[numberOfEdges];
+        int[] reverseEdge = new int[numberOfEdges];
+        for (int edge = 0; edge < numberOfEdges; edge++) {
+            int newEdge = newEdgeIndex[edge];
+            edgeTarget[newEdge] = originalToNew[topology.getTargetNode(edge)];
+            edgeCapacity[newEdge] = topology.getCapacity(edge);
+            reverseEdge[newEdge] = newEdgeIndex[topology.getReverseEdge(edge)];
+        }
+        return new FlowTopology(numberOfNodes, firstEdge, edgeTarget, edgeCapacity, reverseEdge);
+    }
+
+    private void checkSize(int numberOfNodes) {
+        if (numberOfNodes != newToOriginal.length) {
+            throw new IllegalArgumentException("Reordering covers " + newToOriginal.length +
+                    " nodes but the network has " + numberOfNodes);
+        }
+    }
+}
@@ -0,0 +1,504 @@
+/**
+ * Parses very large flow network files on several threads
+ * Author: Soshan Wijayarathne
+ * IIT id: 20230427
+ * UOW id: w2051662
+ */
+package com.algo.network.flow.parser;
+
+import com.algo.network.flow.network.FlowTopology;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+/**
+ * The ParallelParser class reads the same file format as {@link Parser} straight into a {@link FlowTopology}.
+ * The body of the file is split into newline-aligned byte ranges which are memory mapped and parsed on separate
+ * threads into primitive edge buffers. Consecutive ranges are grouped into at most one lane per thread of the common
+ * fork-join pool, and each lane counts node degrees into its own array. The buffers are then merged into the topology's
+ * arrays with a prefix sum over the lane degrees, so every lane can also be written out in parallel while the degree
+ * arrays stay bounded by the parallelism rather than by the number of ranges.
+ * <p>
+ * The result is identical to {@code Parser.parseFlowTopology}, including the order of every node's edges, and
+ * malformed or out-of-range lines are reported with the same warnings and global line numbers once parsing is done.
+ * Lines are terminated by {@code \n}; a preceding {@code \r} is treated as whitespace.
+ */
+public class ParallelParser {
+
+    /**
+     * Smallest range worth a thread of its own when the number of ranges is chosen automatically
+     */
+    private static final long MIN_RANGE_BYTES = 1 << 20;
+
+    /**
+     * Largest range mapped at once, well below the 2 GB limit of a mapped buffer
+     */
+    private static final long MAX_RANGE_BYTES = 1L << 30;
+
+    /**
+     * Largest initial size of a range's edge buffers; they grow when needed
+     */
+    private static final int INITIAL_EDGE_BUFFER = 1 << 16;
+
+    /**
+     * Number of nodes in one block of the parallel prefix sum over node degrees
+     */
+    private static final int PREFIX_BLOCK_NODES = 1 << 16;
+
+    public ParallelParser() {
+    }
+
+    /**
+     * Receives the valid edges of a file in file order
+     */
+    @FunctionalInterface
+    public interface EdgeVisitor {
+        void visitEdge(int fromNode, int toNode, int capacity);
+    }
+
+    /**
+     * Reads the number of nodes from the first line of the specified file
+     *
+     * @param filename the name of the input file
+     * @return the number of nodes
+     * @throws IOException if an I/O error occurs
+     */
+    public static int readNumberOfNodes(String filename) throws IOException {
+        try (FileChannel channel = FileChannel.open(Paths.get(filename), StandardOpenOption.READ)) {
+            return readNumberOfNodes(channel);
+        }
+    }
+
+    /**
+     * Streams every valid edge of the specified file to the visitor without building a network, so a caller can keep
+     * just the edges it needs. The body is mapped and parsed one range at a time on the calling thread.
+     *
+     * @param filename the name of the input file
+     * @param printWarnings whether to print the same warnings as {@link Parser} for invalid lines
+     * @param visitor receives every valid edge in file order
+     * @throws IOException if an I/O error occurs
+     */
+    public static void forEachEdge(String filename, boolean printWarnings, EdgeVisitor visitor) throws IOException {
+        try (FileChannel channel = FileChannel.open(Paths.get(filename), StandardOpenOption.READ)) {
+            int numberOfNodes = readNumberOfNodes(channel);
+            long fileSize = channel.size();
+            long[] boundaries = splitIntoRanges(channel, Math.min(findLineEnd(channel, 0) + 1, fileSize), fileSize, 1);
+
+            int[] firstLineNumber = {2}; // line 1 is the number of nodes
+            LineSink sink = new LineSink() {
+                @Override
+                void addEdge(int fromNode, int toNode, int capacity) {
+                    visitor.visitEdge(fromNode, toNode, capacity);
+                }
+
+                @Override
+                void warn(int lineIndex, String message) {
+                    if (printWarnings) {
+                        System.out.println("Warning: Line " + (firstLineNumber[0] + lineIndex) + message);
+                    }
+                }
+            };
+            for (int range = 0; range + 1 < boundaries.length; range++) {
+                sink.lineCount = 0;
+                parseRange(channel, boundaries[range], boundaries[range + 1], numberOfNodes, sink);
+                firstLineNumber[0] += sink.lineCount;
+            }
+        }
+    }
+
+    /**
+     * Reads the number of nodes from the header line
+     */
+    private static int readNumberOfNodes(FileChannel channel) throws IOException {
+        long headerEnd = findLineEnd(channel, 0);
+        if (channel.size() == 0) {
+            throw new IllegalArgumentException("Input File is Empty");
+        }
+        return Integer.parseInt(readString(channel, 0, headerEnd).trim());
+    }
+
+    /**
+     * Parses the specified file using a number of ranges suited to its size and the available processors
+     *
+     * @param filename the name of the input file
+     * @return the constructed FlowTopology
+     * @throws IOException if an I/O error occurs
+     */
+    public static FlowTopology parseFlowTopology(String filename) throws IOException {
+        long fileSize = Files.size(Paths.get(filename));
+        int ranges = (int) Math.max(1, Math.min(ForkJoinPool.getCommonPoolParallelism(), fileSize / MIN_RANGE_BYTES));
+        return parseFlowTopology(filename, ranges);
+    }
+
+    /**
+     * Parses the specified file split into about the given number of ranges
+     *
+     * @param filename the name of the input file
+     * @param ranges the number of ranges to split the body of the file into
+     * @return the constructed FlowTopology
+     * @throws IOException if an I/O error occurs
+     */
+    public static FlowTopology parseFlowTopology(String filename, int ranges) throws IOException {
+        try (FileChannel channel = FileChannel.open(Paths.get(filename), StandardOpenOption.READ)) {
+            long fileSize = channel.size();
+            int numberOfNodes = readNumberOfNodes(channel);
+            long bodyStart = Math.min(findLineEnd(channel, 0) + 1, fileSize);
+
+            long[] boundaries = splitIntoRanges(channel, bodyStart, fileSize, ranges);
+            int rangeCount = boundaries.length - 1;
+            RangeResult[] results = new RangeResult[rangeCount];
+
+            //lane l parses ranges [firstRange[l], firstRange[l + 1]) in order, counting degrees into laneDegree[l]
+            int laneCount = Math.min(rangeCount, ForkJoinPool.getCommonPoolParallelism());
+            int[] firstRange = new int[laneCount + 1];
+            for (int lane = 0; lane <= laneCount; lane++) {
+                firstRange[lane] = (int) ((long) rangeCount * lane / laneCount);
+            }
+            int[][] laneDegree = new int[laneCount][];
+
+            try {
+                IntStream.range(0, laneCount).parallel().forEach(lane -> {
+                    laneDegree[lane] = new int[numberOfNodes];
+                    for (int range = firstRange[lane]; range < firstRange[lane + 1]; range++) {
+                        try {
+                            long start = boundaries[range];
+                            long end = boundaries[range + 1];
+                            results[range] = new RangeResult(laneDegree[lane],
+                                    (int) Math.min((end - start) / 8 + 16, INITIAL_EDGE_BUFFER));
+                            parseRange(channel, start, end, numberOfNodes, results[range]);
+                        } catch (IOException e) {
+                            throw new UncheckedIOException(e);
+                        }
+                    }
+                });
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+
+            printWarnings(results);
+            return mergeLanes(results, firstRange, laneDegree, numberOfNodes);
+        }
+    }
+
+    /**
+     * Splits {@code [bodyStart, fileSize)} into ranges that each start at the beginning of a line
+     *
+     * @return the range boundaries, starting with bodyStart and ending with fileSize
+     */
+    private static long[] splitIntoRanges(FileChannel channel, long bodyStart, long fileSize, int ranges)
+            throws IOException {
+        long bodyLength = fileSize - bodyStart;
+        int rangeCount = (int) Math.max(Math.max(ranges, 1), (bodyLength + MAX_RANGE_BYTES - 1) / MAX_RANGE_BYTES);
+
+        List<Long> boundaries = new ArrayList<>();
+        boundaries.add(bodyStart);
+        for (int range = 1; range < rangeCount; range++) {
+            long nominal = bodyStart + bodyLength * range / rangeCount;
+            long previous = boundaries.get(boundaries.size() - 1);
+            if (nominal <= previous) {
+                continue;
+            }
+            //move the boundary to just after the next newline
+            long boundary = Math.min(findLineEnd(channel, nominal - 1) + 1, fileSize);
+            if (boundary > previous && boundary < fileSize) {
+                boundaries.add(boundary);
+            }
+        }
+        boundaries.add(fileSize);
+        return boundaries.stream().mapToLong(Long::longValue).toArray();
+    }
+
+    /**
+     * Returns the position of the first newline at or after the given position, or the file size if there is none
+     */
+    private static long findLineEnd(FileChannel channel, long position) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(8192);
+        long offset = position;
+        while (true) {
+            buffer.clear();
+            int read = channel.read(buffer, offset);
+            if (read <= 0) {
+                return channel.size();
+            }
+            for (int i = 0; i < read; i++) {
+                if (buffer.get(i) == '\n') {
+                    return offset + i;
+                }
+            }
+            offset += read;
+        }
+    }
+
+    private static String readString(FileChannel channel, long start, long end) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate((int) (end - start));
+        while (buffer.hasRemaining() && channel.read(buffer, start + buffer.position()) > 0) {
+            // keep reading until the header is complete
+        }
+        return new String(buffer.array(), 0, buffer.position(), StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Parses every line of one byte range, handing valid edges and warnings to the sink
+     */
+    private static void parseRange(FileChannel channel, long start, long end, int numberOfNodes, LineSink result)
+            throws IOException {
+        MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, start, end - start);
+        int[] tokenStart = new int[3];
+        int[] tokenEnd = new int[3];
+        int limit = buffer.limit();
+        int position = 0;
+
+        while (position < limit) {
+            int lineEnd = position;
+            while (lineEnd < limit && buffer.get(lineEnd) != '\n') {
+                lineEnd++;
+            }
+            int lineIndex = result.lineCount++;
+
+            int tokens = 0;
+            int index = position;
+            while (index < lineEnd) {
+                while (index < lineEnd && isWhitespace(buffer.get(index))) {
+                    index++;
+                }
+                if (index == lineEnd) {
+                    break;
+                }
+                if (tokens < 3) {
+                    tokenStart[tokens] = index;
+                }
+                while (index < lineEnd && !isWhitespace(buffer.get(index))) {
+                    index++;
+                }
+                if (tokens < 3) {
+                    tokenEnd[tokens] = index;
+                }
+                tokens++;
+            }
+            position = lineEnd + 1;
+
+            if (tokens != 3) {
+                //an empty line splits into a single empty token
+                result.warn(lineIndex, " is malformed and will be ignored. Expected 3 values but got " + Math.max(tokens, 1));
+                continue;
+            }
+
+            long fromNode = parseInteger(buffer, tokenStart[0], tokenEnd[0]);
+            long toNode = parseInteger(buffer, tokenStart[1], tokenEnd[1]);
+            long capacity = parseInteger(buffer, tokenStart[2], tokenEnd[2]);
+            if (fromNode == Long.MIN_VALUE || toNode == Long.MIN_VALUE || capacity == Long.MIN_VALUE) {
+                result.warn(lineIndex, " contains non-integer values and will be ignored.");
+                continue;
+            }
+
+            // Validate node indices before adding the edge
+            if (fromNode < 0 || fromNode >= numberOfNodes) {
+                result.warn(lineIndex, " has invalid 'from' node " + fromNode +
+                        ". Node indices must be between 0 and " + (numberOfNodes - 1) + ". This edge will be ignored.");
+                continue;
+            }
+            if (toNode < 0 || toNode >= numberOfNodes) {
+                result.warn(lineIndex, " has invalid 'to' node " + toNode +
+                        ". Node indices must be between 0 and " + (numberOfNodes - 1) + ". This edge will be ignored.");
+                continue;
+            }
+            if (capacity < 0) {
+                result.warn(lineIndex, " has negative capacity " + capacity +
+                        ". Capacity must be non-negative. This edge will be ignored.");
+                continue;
+            }
+
+            result.addEdge((int) fromNode, (int) toNode, (int) capacity);
+        }
+    }
+
+    /**
+     * Treats the same characters as whitespace as {@link String#trim()}
+     */
+    private static boolean isWhitespace(byte value) {
+        return (value & 0xFF) <= ' ';
+    }
+
+    /**
+     * Parses a decimal int the way {@link Integer#parseInt(String)} does
+     *
+     * @return the value, or {@link Long#MIN_VALUE} if the token is not a valid int
+     */
+    private static long parseInteger(ByteBuffer buffer, int start, int end) {
+        int index = start;
+        boolean negative = false;
+        byte first = buffer.get(index);
+        if (first == '-' || first == '+') {
+            negative = first == '-';
+            index++;
+        }
+        if (index == end) {
+            return Long.MIN_VALUE;
+        }
+        long value = 0;
+        for (; index < end; index++) {
+            int digit = buffer.get(index) - '0';
+            if (digit < 0 || digit > 9) {
+                return Long.MIN_VALUE;
+            }
+            value = value * 10 + digit;
+            if (value > (long) Integer.MAX_VALUE + 1) {
+                return Long.MIN_VALUE;
+            }
+        }
+        value = negative ? -value : value;
+        return value < Integer.MIN_VALUE || value > Integer.MAX_VALUE ? Long.MIN_VALUE : value;
+    }
+
+    /**
+     * Prints the warnings of all ranges in file order, turning range-local line indices into line numbers
+     */
+    private static void printWarnings(RangeResult[] results) {
+        int firstLineNumber = 2; // line 1 is the number of nodes
+        for (RangeResult result : results) {
+            for (int i = 0; i < result.warningLines.size(); i++) {
+                System.out.println("Warning: Line " + (firstLineNumber + result.warningLines.get(i)) + result.warnings.get(i));
+            }
+            firstLineNumber += result.lineCount;
+        }
+    }
+
+    /**
+     * Merges the edge buffers of all ranges into the topology arrays. A prefix sum over the lane degrees gives every
+     * lane its own write position for every node, so lanes are copied in parallel while each node keeps its edges in
+     * file order. The prefix sum itself runs in parallel over blocks of nodes.
+     */
+    private static FlowTopology mergeLanes(RangeResult[] results, int[] firstRange, int[][] laneDegree,
+                                           int numberOfNodes) {
+        int laneCount = laneDegree.length;
+        int blockCount = (numberOfNodes + PREFIX_BLOCK_NODES - 1) / PREFIX_BLOCK_NODES;
+        int[] firstEdge = new int[numberOfNodes + 1];
+
+        //total degree of every node, held in firstEdge[node + 1] until the offsets are known
+        long[] blockStart = new long[blockCount + 1];
+        IntStream.range(0, blockCount).parallel().forEach(block -> {
+            int end = Math.min(numberOfNodes, (block + 1) * PREFIX_BLOCK_NODES);
+            long total = 0;
+            for (int node = block * PREFIX_BLOCK_NODES; node < end; node++) {
+                int degree = 0;
+                for (int[] degrees : laneDegree) {
+                    degree += degrees[node];
+                }
+                firstEdge[node + 1] = degree;
+                total += degree;
+            }
+            blockStart[block + 1] = total;
+        });
+        for (int block = 0; block < blockCount; block++) {
+            blockStart[block + 1] += blockStart[block];
+        }
+        if (blockStart[blockCount] > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("The network has more than " + Integer.MAX_VALUE + " residual edges");
+        }
+
+        //turn the degrees into offsets and every lane's degree counts into that lane's write positions
+        IntStream.range(0, blockCount).parallel().forEach(block -> {
+            int end = Math.min(numberOfNodes, (block + 1) * PREFIX_BLOCK_NODES);
+            int position = (int) blockStart[block];
+            for (int node = block * PREFIX_BLOCK_NODES; node < end; node++) {
+                int next = position + firstEdge[node + 1];
+                for (int[] degrees : laneDegree) {
+                    int degree = degrees[node];
+                    degrees[node] = position;
+                    position += degree;
+                }
+                firstEdge[node + 1] = next;
+            }
+        });
+
+        int numberOfEdges = firstEdge[numberOfNodes];
+        int[] edgeTarget = new int[numberOfEdges];
+        int[] edgeCapacity = new int[numberOfEdges];
+        int[] reverseEdge = new int[numberOfEdges];
+
+        IntStream.range(0, laneCount).parallel().forEach(lane -> {
+            int[] position = laneDegree[lane];
+            for (int range = firstRange[lane]; range < firstRange[lane + 1]; range++) {
+                RangeResult result = results[range];
+                for (int i = 0; i < result.edgeCount; i++) {
+                    int fromNode = result.fromNodes[i];
+                    int toNode = result.toNodes[i];
+                    int forwardEdge = position[fromNode]++;
+                    int backwardEdge = position[toNode]++;
+                    edgeTarget[forwardEdge] = toNode;
+                    edgeCapacity[forwardEdge] = result.capacities[i];
+                    reverseEdge[forwardEdge] = backwardEdge;
+                    edgeTarget[backwardEdge] = fromNode;
+                    reverseEdge[backwardEdge] = forwardEdge;
+                }
+            }
+        });
+
+        return new FlowTopology(numberOfNodes, firstEdge, edgeTarget, edgeCapacity, reverseEdge);
+    }
+
+    /**
+     * Receives the edges and warnings of one byte range and counts its lines
+     */
+    private abstract static class LineSink {
+        int lineCount;
+
+        abstract void addEdge(int fromNode, int toNode, int capacity);
+
+        abstract void warn(int lineIndex, String message);
+    }
+
+    /**
+     * Edges and warnings parsed from one byte range, with node degrees added to the array of its lane
+     */
+    private static final class RangeResult extends LineSink {
+        private final int[] degree;
+        private int[] fromNodes;
+        private int[] toNodes;
+        private int[] capacities;
+        private int edgeCount;
+        private final List<Integer> warningLines = new ArrayList<>();
+        private final List<String> warnings = new ArrayList<>();
+
+        private RangeResult(int[] degree, int expectedEdges) {
+            this.degree = degree;
+            this.fromNodes = new int[expectedEdges];
+            this.toNodes = new int[expectedEdges];
+            this.capacities = new int[expectedEdges];
+        }
+
+        @Override
+        void addEdge(int fromNode, int toNode, int capacity) {
+            if (edgeCount == fromNodes.length) {
+                int newLength = fromNodes.length * 2;
+                fromNodes = Arrays.copyOf(fromNodes, newLength);
+                toNodes = Arrays.copyOf(toNodes, newLength);
+                capacities = Arrays.copyOf(capacities, newLength);
+            }
+            fromNodes[edgeCount] = fromNode;
+            toNodes[edgeCount] = toNode;
+            capacities[edgeCount] = capacity;
+            edgeCount++;
+            degree[fromNode]++;
+            degree[toNode]++;
+        }
+
+        @Override
+        void warn(int lineIndex, String message) {
+            warningLines.add(lineIndex);
+            warnings.add(message);
+        }
+    }
+}
@@ -8,6 +8,7 @@ package com.algo.network.flow.parser;
 
 
 import com.algo.network.flow.network.FlowNetwork;
+import com.algo.network.flow.network.FlowTopology;
 
 import java.io.BufferedReader;
 import java.io.FileReader;
@@ -78,4 +79,16 @@ public class Parser {
             return network;
         }
     }
+
+    /**
+     * Parses the specified file into a read-only topology that can be shared between concurrent queries.
+     * Source and sink are not part of a topology; they are chosen per query.
+     *
+     * @param filename the name of the input file
+     * @return the constructed FlowTopology
+     * @throws IOException if an I/O error occurs
+     */
+    public static FlowTopology parseFlowTopology(String filename) throws IOException {
+        return FlowTopology.fromNetwork(parseFlowNetwork(filename));
+    }
 }
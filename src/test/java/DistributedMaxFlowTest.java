@@ -0,0 +1,104 @@
+/**
+ * Tests for computing maximum flow across several worker processes
+ * Author: Soshan Wijayarathne
+ * IIT id: 20230427
+ * UOW id: w2051662
+ */
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.stream.Stream;
+
+import com.algo.network.flow.distributed.DistributedMaxFlow;
+import com.algo.network.flow.distributed.DistributedResult;
+import com.algo.network.flow.network.Edge;
+import com.algo.network.flow.network.FlowNetwork;
+import com.algo.network.flow.network.NodeReordering;
+import com.algo.network.flow.parser.Parser;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+
+public class DistributedMaxFlowTest {
+
+    private static Stream<Arguments> provideTestCases() {
+        return Stream.of(
+                Arguments.of("src/test/resources/test1.txt"),
+                Arguments.of("src/test/resources/test2.txt"),
+                Arguments.of("src/test/resources/test3.txt"),
+                Arguments.of("src/test/resources/test4.txt"),
+                Arguments.of("src/test/resources/test5.txt"),
+                Arguments.of("src/test/resources/test6.txt"),
+                Arguments.of("src/test/resources/test7.txt"),
+                Arguments.of("src/test/resources/test8.txt"),
+                Arguments.of("src/test/resources/test9.txt"),
+                Arguments.of("src/test/resources/test10.txt")
+        );
+    }
+
+    @ParameterizedTest
+    @MethodSource("provideTestCases")
+    void testDistributedFlowMatchesExpectedFlow(String inputFile) throws Exception {
+        int expectedFlow = FlowTestSupport.expectedFlow(inputFile);
+        FlowNetwork network = Parser.parseFlowNetwork(inputFile);
+        DistributedResult result = DistributedMaxFlow.computeMaximumFlow(network, 2);
+
+        assertEquals(expectedFlow, result.getMaxFlow(), "Incorrect max flow for " + inputFile);
+        assertEquals(expectedFlow, result.getCutCapacity(), "Incorrect min cut for " + inputFile);
+        assertTrue(result.isOnSourceSide(network.getSourceNode()));
+        assertFalse(result.isOnSourceSide(network.getSinkNode()));
+    }
+
+    @ParameterizedTest
+    @MethodSource("provideTestCases")
+    void testWorkersReadingTheFileMatchExpectedFlow(String inputFile) throws Exception {
+        int expectedFlow = FlowTestSupport.expectedFlow(inputFile);
+        DistributedResult result = DistributedMaxFlow.computeMaximumFlow(inputFile, 3);
+
+        assertEquals(expectedFlow, result.getMaxFlow(), "Incorrect max flow for " + inputFile);
+        assertEquals(expectedFlow, result.getCutCapacity(), "Incorrect min cut for " + inputFile);
+    }
+
+    @Test
+    void testRegionCountDoesNotChangeTheFlow() throws Exception {
+        String inputFile = "src/test/resources/test10.txt";
+        int expectedFlow = FlowTestSupport.expectedFlow(inputFile);
+
+        for (int regions = 1; regions <= 8; regions++) {
+            DistributedResult result = DistributedMaxFlow.computeMaximumFlow(Parser.parseFlowNetwork(inputFile), regions);
+            assertEquals(expectedFlow, result.getMaxFlow(), "Incorrect max flow with " + regions + " regions");
+            assertEquals(expectedFlow, result.getCutCapacity(), "Incorrect min cut with " + regions + " regions");
+        }
+    }
+
+    @Test
+    void testReorderedNetworkReportsCutInOriginalNodes() throws Exception {
+        String inputFile = "input/ladder_5.txt";
+        int expectedFlow = FlowTestSupport.expectedFlow(inputFile);
+        FlowNetwork network = Parser.parseFlowNetwork(inputFile);
+        NodeReordering reordering = NodeReordering.reverseCuthillMcKee(network);
+
+        DistributedResult result = DistributedMaxFlow.computeMaximumFlow(reordering.apply(network), reordering, 3);
+        assertEquals(expectedFlow, result.getMaxFlow());
+        assertTrue(result.isOnSourceSide(network.getSourceNode()));
+        assertFalse(result.isOnSourceSide(network.getSinkNode()));
+
+        // the cut must be a minimum cut of the network in its original numbering
+        long cutCapacity = 0;
+        for (int node = 0; node < network.getNumberOfNodes(); node++) {
+            if (!result.isOnSourceSide(node)) {
+                continue;
+            }
+            for (Edge edge : network.getAdjacencyList().get(node)) {
+                if (!result.isOnSourceSide(edge.getTargetNode())) {
+                    cutCapacity += edge.getCapacity();
+                }
+            }
+        }
+        assertEquals(expectedFlow, cutCapacity);
+    }
+}
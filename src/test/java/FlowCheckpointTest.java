@@ -0,0 +1,136 @@
+/**
+ * Tests for checkpointing and resuming maximum flow solves
+ * Author: Soshan Wijayarathne
+ * IIT id: 20230427
+ * UOW id: w2051662
+ */
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import com.algo.network.flow.algorithm.FlowVerifier;
+import com.algo.network.flow.algorithm.FordFulkerson;
+import com.algo.network.flow.checkpoint.FlowCheckpoint;
+import com.algo.network.flow.checkpoint.FlowCheckpointer;
+import com.algo.network.flow.network.FlowNetwork;
+import com.algo.network.flow.network.NodeReordering;
+import com.algo.network.flow.parser.Parser;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+
+public class FlowCheckpointTest {
+
+    private static final String INPUT_FILE = "src/test/resources/test10.txt";
+
+    @Test
+    void testCheckpointRoundTrip(@TempDir Path directory) throws Exception {
+        Path file = directory.resolve("round-trip.ckpt");
+        int[] flows = {0, 5, -5, Integer.MAX_VALUE, Integer.MIN_VALUE, 127, -128};
+        int[] labels = {6, 0, 1, 2, 3, 7};
+        new FlowCheckpoint("push-relabel", 42L, 6, 5, flows, labels).write(file);
+
+        FlowCheckpoint checkpoint = FlowCheckpoint.read(file);
+
+        assertEquals("push-relabel", checkpoint.getEngine());
+        assertEquals(42L, checkpoint.getFingerprint());
+        assertEquals(6, checkpoint.getNumberOfNodes());
+        assertEquals(5, checkpoint.getMaxFlow());
+        assertEquals(flows.length, checkpoint.getNumberOfEdges());
+        assertArrayEquals(labels, checkpoint.getLabels());
+    }
+
+    @Test
+    void testTruncatedCheckpointIsRejected(@TempDir Path directory) throws Exception {
+        Path file = directory.resolve("truncated.ckpt");
+        FlowNetwork network = Parser.parseFlowNetwork(INPUT_FILE);
+        FlowCheckpoint.capture(network, FlowCheckpoint.fingerprint(network), FordFulkerson.ENGINE_NAME, 0, new int[0]).write(file);
+
+        byte[] bytes = Files.readAllBytes(file);
+        Files.write(file, Arrays.copyOf(bytes, bytes.length - 3));
+
+        assertThrows(IOException.class, () -> FlowCheckpoint.read(file));
+    }
+
+    @Test
+    void testSolveResumesFromCheckpoint(@TempDir Path directory) throws Exception {
+        Path file = directory.resolve("solve.ckpt");
+
+        // An interrupted solve that had pushed 4 units along 0 -> 2 -> 4 -> 5
+        FlowNetwork interrupted = Parser.parseFlowNetwork(INPUT_FILE);
+        FlowTestSupport.augment(interrupted, 0, 2, 4);
+        FlowTestSupport.augment(interrupted, 2, 4, 4);
+        FlowTestSupport.augment(interrupted, 4, 5, 4);
+        try (FlowCheckpointer checkpointer = new FlowCheckpointer(file, 0)) {
+            checkpointer.checkpoint(interrupted, FordFulkerson.ENGINE_NAME, 4, new int[0]);
+            checkpointer.awaitWrites();
+        }
+
+        FlowNetwork restarted = Parser.parseFlowNetwork(INPUT_FILE);
+        try (FlowCheckpointer checkpointer = new FlowCheckpointer(file, Long.MAX_VALUE)) {
+            assertEquals(4, checkpointer.resume(restarted, FordFulkerson.ENGINE_NAME));
+        }
+
+        FlowNetwork solved = Parser.parseFlowNetwork(INPUT_FILE);
+        try (FlowCheckpointer checkpointer = new FlowCheckpointer(file, Long.MAX_VALUE)) {
+            int maxFlow = FordFulkerson.computeMaximumFlow(solved, null, checkpointer);
+            assertEquals(FlowTestSupport.expectedFlow(INPUT_FILE), maxFlow);
+            assertTrue(FlowVerifier.verify(solved, maxFlow).isValid());
+        }
+    }
+
+    @Test
+    void testCheckpointOfOtherNetworkIsIgnored(@TempDir Path directory) throws Exception {
+        Path file = directory.resolve("other.ckpt");
+        FlowNetwork other = Parser.parseFlowNetwork("src/test/resources/test5.txt");
+        FordFulkerson.computeMaximumFlow(other);
+        try (FlowCheckpointer checkpointer = new FlowCheckpointer(file, 0)) {
+            checkpointer.checkpoint(other, FordFulkerson.ENGINE_NAME, 15, new int[0]);
+            checkpointer.awaitWrites();
+        }
+
+        int expectedFlow = FlowTestSupport.expectedFlow(INPUT_FILE);
+        FlowNetwork network = Parser.parseFlowNetwork(INPUT_FILE);
+        try (FlowCheckpointer checkpointer = new FlowCheckpointer(file, Long.MAX_VALUE)) {
+            assertEquals(0, checkpointer.resume(network, FordFulkerson.ENGINE_NAME));
+            assertEquals(expectedFlow, FordFulkerson.computeMaximumFlow(network, null, checkpointer));
+        }
+    }
+
+    @Test
+    void testPeriodicCheckpointsAreWritten(@TempDir Path directory) throws Exception {
+        Path file = directory.resolve("periodic.ckpt");
+        FlowNetwork network = Parser.parseFlowNetwork(INPUT_FILE);
+        try (FlowCheckpointer checkpointer = new FlowCheckpointer(file, 0)) {
+            FordFulkerson.computeMaximumFlow(network, null, checkpointer);
+            checkpointer.awaitWrites();
+        }
+
+        FlowCheckpoint checkpoint = FlowCheckpoint.read(file);
+        assertEquals(FlowTestSupport.expectedFlow(INPUT_FILE), checkpoint.getMaxFlow());
+        assertEquals(FlowCheckpoint.fingerprint(network), checkpoint.getFingerprint());
+    }
+
+    @Test
+    void testReorderedSolveIsCheckpointed(@TempDir Path directory) throws Exception {
+        Path file = directory.resolve("reordered.ckpt");
+        int expectedFlow = FlowTestSupport.expectedFlow(INPUT_FILE);
+        FlowNetwork network = Parser.parseFlowNetwork(INPUT_FILE);
+        NodeReordering reordering = NodeReordering.reverseCuthillMcKee(network);
+        FlowNetwork reordered = reordering.apply(network);
+        try (FlowCheckpointer checkpointer = new FlowCheckpointer(file, 0)) {
+            assertEquals(expectedFlow, FordFulkerson.computeMaximumFlow(reordered, reordering, checkpointer));
+            checkpointer.awaitWrites();
+        }
+
+        assertEquals(FlowCheckpoint.fingerprint(reordered), FlowCheckpoint.read(file).getFingerprint());
+        assertEquals(expectedFlow, FordFulkerson.computeMaximumFlow(Parser.parseFlowNetwork(INPUT_FILE), null));
+    }
+}
@@ -0,0 +1,49 @@
+/**
+ * Shared helpers for the maximum flow tests
+ * Author: Soshan Wijayarathne
+ * IIT id: 20230427
+ * UOW id: w2051662
+ */
+
+import java.io.IOException;
+
+import com.algo.network.flow.algorithm.FordFulkerson;
+import com.algo.network.flow.network.Edge;
+import com.algo.network.flow.network.FlowNetwork;
+import com.algo.network.flow.parser.Parser;
+
+
+final class FlowTestSupport {
+
+    private FlowTestSupport() {
+    }
+
+    /**
+     * Solves the input file with {@link FordFulkerson}, whose results are checked against fixed values in MaxFlowTest
+     *
+     * @param inputFile the name of the input file
+     * @return the maximum flow of the network in the file
+     * @throws IOException if the file cannot be read
+     */
+    static int expectedFlow(String inputFile) throws IOException {
+        return FordFulkerson.computeMaximumFlow(Parser.parseFlowNetwork(inputFile));
+    }
+
+    /**
+     * Adds flow to the first edge with capacity from one node to another
+     *
+     * @param network the flow network
+     * @param fromNode the node the edge leaves
+     * @param toNode the node the edge enters
+     * @param amount the flow to add, which may be negative
+     */
+    static void augment(FlowNetwork network, int fromNode, int toNode, int amount) {
+        for (Edge edge : network.getAdjacencyList().get(fromNode)) {
+            if (edge.getTargetNode() == toNode && edge.getCapacity() > 0) {
+                edge.augmentFlow(amount);
+                return;
+            }
+        }
+        throw new IllegalArgumentException("No edge from " + fromNode + " to " + toNode);
+    }
+}
@@ -0,0 +1,89 @@
+/**
+ * Tests for certifying maximum flow results
+ * Author: Soshan Wijayarathne
+ * IIT id: 20230427
+ * UOW id: w2051662
+ */
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.stream.Stream;
+
+import com.algo.network.flow.algorithm.FlowVerifier;
+import com.algo.network.flow.algorithm.FordFulkerson;
+import com.algo.network.flow.algorithm.VerificationResult;
+import com.algo.network.flow.network.FlowNetwork;
+import com.algo.network.flow.parser.Parser;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+
+public class FlowVerifierTest {
+
+    private static Stream<Arguments> provideTestCases() {
+        return Stream.of(
+                Arguments.of("src/test/resources/test1.txt"),
+                Arguments.of("src/test/resources/test2.txt"),
+                Arguments.of("src/test/resources/test3.txt"),
+                Arguments.of("src/test/resources/test4.txt"),
+                Arguments.of("src/test/resources/test5.txt"),
+                Arguments.of("src/test/resources/test6.txt"),
+                Arguments.of("src/test/resources/test7.txt"),
+                Arguments.of("src/test/resources/test8.txt"),
+                Arguments.of("src/test/resources/test9.txt"),
+                Arguments.of("src/test/resources/test10.txt"),
+                Arguments.of("input/bridge_5.txt"),
+                Arguments.of("input/ladder_5.txt")
+        );
+    }
+
+    @ParameterizedTest
+    @MethodSource("provideTestCases")
+    void testSolvedNetworkIsCertified(String inputFile) throws Exception {
+        FlowNetwork network = Parser.parseFlowNetwork(inputFile);
+        int maxFlow = FordFulkerson.computeMaximumFlow(network);
+
+        VerificationResult result = FlowVerifier.verify(network, maxFlow);
+
+        assertTrue(result.isValid(), "Flow for " + inputFile + " was not certified: " + result.getViolations());
+        assertEquals(maxFlow, result.getCutCapacity());
+        assertTrue(result.isOnSourceSide(network.getSourceNode()));
+        assertFalse(result.isOnSourceSide(network.getSinkNode()));
+    }
+
+    @Test
+    void testWrongValueIsRejected() throws Exception {
+        FlowNetwork network = Parser.parseFlowNetwork("src/test/resources/test10.txt");
+        int maxFlow = FordFulkerson.computeMaximumFlow(network);
+
+        assertFalse(FlowVerifier.verify(network, maxFlow + 1).isValid());
+    }
+
+    @Test
+    void testUnfinishedFlowIsRejected() throws Exception {
+        FlowNetwork network = Parser.parseFlowNetwork("src/test/resources/test10.txt");
+
+        // A feasible flow of 4 along 0 -> 2 -> 4 -> 5 that is not maximum
+        FlowTestSupport.augment(network, 0, 2, 4);
+        FlowTestSupport.augment(network, 2, 4, 4);
+        FlowTestSupport.augment(network, 4, 5, 4);
+
+        assertTrue(FlowVerifier.checkFeasibleFlow(network, 4).isEmpty());
+        assertFalse(FlowVerifier.verify(network, 4).isValid());
+    }
+
+    @Test
+    void testBrokenConservationIsRejected() throws Exception {
+        FlowNetwork network = Parser.parseFlowNetwork("src/test/resources/test10.txt");
+        int maxFlow = FordFulkerson.computeMaximumFlow(network);
+
+        FlowTestSupport.augment(network, 1, 3, -1);
+
+        assertFalse(FlowVerifier.checkFeasibleFlow(network, maxFlow).isEmpty());
+        assertFalse(FlowVerifier.verify(network, maxFlow).isValid());
+    }
+}
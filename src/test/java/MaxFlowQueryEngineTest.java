@@ -0,0 +1,115 @@
+/**
+ * Tests for answering maximum flow queries over a shared topology
+ * Author: Soshan Wijayarathne
+ * IIT id: 20230427
+ * UOW id: w2051662
+ */
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Stream;
+
+import com.algo.network.flow.algorithm.FlowQuery;
+import com.algo.network.flow.algorithm.FordFulkerson;
+import com.algo.network.flow.algorithm.MaxFlowQueryEngine;
+import com.algo.network.flow.network.FlowNetwork;
+import com.algo.network.flow.network.FlowTopology;
+import com.algo.network.flow.parser.Parser;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+
+public class MaxFlowQueryEngineTest {
+
+    private static Stream<Arguments> provideTestCases() {
+        return Stream.of(
+                Arguments.of("src/test/resources/test1.txt"),
+                Arguments.of("src/test/resources/test2.txt"),
+                Arguments.of("src/test/resources/test3.txt"),
+                Arguments.of("src/test/resources/test4.txt"),
+                Arguments.of("src/test/resources/test5.txt"),
+                Arguments.of("src/test/resources/test6.txt"),
+                Arguments.of("src/test/resources/test7.txt"),
+                Arguments.of("src/test/resources/test8.txt"),
+                Arguments.of("src/test/resources/test9.txt"),
+                Arguments.of("src/test/resources/test10.txt")
+        );
+    }
+
+    @ParameterizedTest
+    @MethodSource("provideTestCases")
+    void testDefaultQueryMatchesExpectedFlow(String inputFile) throws Exception {
+        int expectedFlow = FlowTestSupport.expectedFlow(inputFile);
+        FlowTopology topology = Parser.parseFlowTopology(inputFile);
+        MaxFlowQueryEngine engine = new MaxFlowQueryEngine(topology);
+
+        assertEquals(expectedFlow, engine.computeMaximumFlow(0, topology.getNumberOfNodes() - 1),
+                "Incorrect max flow for " + inputFile);
+    }
+
+    @Test
+    void testConcurrentQueriesMatchSequentialSolves() throws Exception {
+        String inputFile = "src/test/resources/test10.txt";
+        FlowTopology topology = Parser.parseFlowTopology(inputFile);
+        int numberOfNodes = topology.getNumberOfNodes();
+
+        // Every ordered pair, repeated so that pooled workspaces are reused
+        List<FlowQuery> queries = new ArrayList<>();
+        for (int repeat = 0; repeat < 4; repeat++) {
+            for (int source = 0; source < numberOfNodes; source++) {
+                for (int sink = 0; sink < numberOfNodes; sink++) {
+                    if (source != sink) {
+                        queries.add(new FlowQuery(source, sink));
+                    }
+                }
+            }
+        }
+
+        int[] expected = new int[queries.size()];
+        for (int i = 0; i < queries.size(); i++) {
+            FlowQuery query = queries.get(i);
+            expected[i] = FordFulkerson.computeMaximumFlow(
+                    buildNetwork(inputFile, query.getSourceNode(), query.getSinkNode()));
+        }
+
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            MaxFlowQueryEngine engine = new MaxFlowQueryEngine(topology, pool);
+            assertArrayEquals(expected, engine.computeMaximumFlows(queries));
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    void testInvalidQueriesAreRejected() throws Exception {
+        FlowTopology topology = Parser.parseFlowTopology("src/test/resources/test1.txt");
+        MaxFlowQueryEngine engine = new MaxFlowQueryEngine(topology);
+
+        assertThrows(IllegalArgumentException.class, () -> engine.computeMaximumFlow(-1, 2));
+        assertThrows(IllegalArgumentException.class, () -> engine.computeMaximumFlow(0, 3));
+        assertThrows(IllegalArgumentException.class, () -> engine.computeMaximumFlow(1, 1));
+    }
+
+    /**
+     * Builds a FlowNetwork from the file with the given source and sink instead of the parser's defaults
+     */
+    private static FlowNetwork buildNetwork(String inputFile, int sourceNode, int sinkNode) throws Exception {
+        List<String> lines = Files.readAllLines(Path.of(inputFile));
+        FlowNetwork network = new FlowNetwork(Integer.parseInt(lines.get(0).trim()), sourceNode, sinkNode);
+        for (String line : lines.subList(1, lines.size())) {
+            String[] tokens = line.trim().split("\\s+");
+            network.addEdge(Integer.parseInt(tokens[0]), Integer.parseInt(tokens[1]), Integer.parseInt(tokens[2]));
+        }
+        return network;
+    }
+}
@@ -0,0 +1,104 @@
+/**
+ * Tests for renumbering flow network nodes
+ * Author: Soshan Wijayarathne
+ * IIT id: 20230427
+ * UOW id: w2051662
+ */
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+import com.algo.network.flow.algorithm.FordFulkerson;
+import com.algo.network.flow.algorithm.MaxFlowQueryEngine;
+import com.algo.network.flow.network.Edge;
+import com.algo.network.flow.network.FlowNetwork;
+import com.algo.network.flow.network.FlowTopology;
+import com.algo.network.flow.network.NodeReordering;
+import com.algo.network.flow.parser.Parser;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+
+public class NodeReorderingTest {
+
+    private static Stream<Arguments> provideTestCases() {
+        return Stream.of(
+                Arguments.of("src/test/resources/test1.txt"),
+                Arguments.of("src/test/resources/test3.txt"),
+                Arguments.of("src/test/resources/test5.txt"),
+                Arguments.of("src/test/resources/test8.txt"),
+                Arguments.of("src/test/resources/test10.txt"),
+                Arguments.of("input/ladder_3.txt")
+        );
+    }
+
+    @ParameterizedTest
+    @MethodSource("provideTestCases")
+    void testBreadthFirstOrderKeepsMaxFlow(String inputFile) throws Exception {
+        int expectedFlow = FlowTestSupport.expectedFlow(inputFile);
+        FlowNetwork network = Parser.parseFlowNetwork(inputFile);
+        NodeReordering reordering = NodeReordering.breadthFirstOrder(network);
+
+        assertPermutation(reordering);
+        assertEquals(0, reordering.toReorderedNode(network.getSourceNode()));
+        assertEquals(expectedFlow, FordFulkerson.computeMaximumFlow(reordering.apply(network), reordering));
+    }
+
+    @ParameterizedTest
+    @MethodSource("provideTestCases")
+    void testReverseCuthillMcKeeKeepsMaxFlow(String inputFile) throws Exception {
+        int expectedFlow = FlowTestSupport.expectedFlow(inputFile);
+        FlowNetwork network = Parser.parseFlowNetwork(inputFile);
+        NodeReordering reordering = NodeReordering.reverseCuthillMcKee(network);
+
+        assertPermutation(reordering);
+        assertEquals(expectedFlow, FordFulkerson.computeMaximumFlow(reordering.apply(network), reordering));
+    }
+
+    @ParameterizedTest
+    @MethodSource("provideTestCases")
+    void testReorderedTopologyKeepsMaxFlow(String inputFile) throws Exception {
+        int expectedFlow = FlowTestSupport.expectedFlow(inputFile);
+        FlowNetwork network = Parser.parseFlowNetwork(inputFile);
+        NodeReordering reordering = NodeReordering.reverseCuthillMcKee(network);
+        FlowTopology topology = reordering.apply(FlowTopology.fromNetwork(network));
+
+        int flow = new MaxFlowQueryEngine(topology).computeMaximumFlow(
+                reordering.toReorderedNode(network.getSourceNode()), reordering.toReorderedNode(network.getSinkNode()));
+        assertEquals(expectedFlow, flow);
+    }
+
+    @Test
+    void testZeroCapacityEdgesKeepTheirDirection() {
+        FlowNetwork network = new FlowNetwork(4, 0, 3);
+        network.addEdge(0, 1, 5);
+        network.addEdge(2, 1, 0);
+        network.addEdge(1, 3, 5);
+        network.addEdge(3, 2, 0);
+        NodeReordering reordering = NodeReordering.fromOrder(new int[]{3, 1, 0, 2});
+
+        FlowNetwork reordered = reordering.apply(network);
+
+        assertHasOriginalEdge(reordered, reordering.toReorderedNode(2), reordering.toReorderedNode(1), 0);
+        assertHasOriginalEdge(reordered, reordering.toReorderedNode(3), reordering.toReorderedNode(2), 0);
+        assertEquals(5, FordFulkerson.computeMaximumFlow(reordered, reordering));
+    }
+
+    private static void assertHasOriginalEdge(FlowNetwork network, int fromNode, int toNode, int capacity) {
+        List<Edge> edges = network.getAdjacencyList().get(fromNode);
+        assertTrue(edges.stream().anyMatch(edge -> edge.isOriginal()
+                        && edge.getTargetNode() == toNode && edge.getCapacity() == capacity),
+                "Missing edge " + fromNode + " -> " + toNode);
+    }
+
+    private static void assertPermutation(NodeReordering reordering) {
+        for (int node = 0; node < reordering.getNumberOfNodes(); node++) {
+            assertEquals(node, reordering.toOriginalNode(reordering.toReorderedNode(node)));
+        }
+    }
+}
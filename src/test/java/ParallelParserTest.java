@@ -0,0 +1,92 @@
+/**
+ * Tests for parsing flow network files on several threads
+ * Author: Soshan Wijayarathne
+ * IIT id: 20230427
+ * UOW id: w2051662
+ */
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.stream.Stream;
+
+import com.algo.network.flow.network.FlowTopology;
+import com.algo.network.flow.parser.ParallelParser;
+import com.algo.network.flow.parser.Parser;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+
+public class ParallelParserTest {
+
+    private static Stream<Arguments> provideTestCases() {
+        return Stream.of(
+                Arguments.of("src/test/resources/test1.txt", 1),
+                Arguments.of("src/test/resources/test5.txt", 3),
+                Arguments.of("src/test/resources/test10.txt", 4),
+                Arguments.of("input/bridge_5.txt", 7),
+                Arguments.of("input/ladder_9.txt", 16)
+        );
+    }
+
+    @ParameterizedTest
+    @MethodSource("provideTestCases")
+    void testParallelParseMatchesParser(String inputFile, int ranges) throws Exception {
+        assertSameTopology(Parser.parseFlowTopology(inputFile), ParallelParser.parseFlowTopology(inputFile, ranges));
+    }
+
+    @Test
+    void testWarningsUseGlobalLineNumbers(@TempDir Path directory) throws Exception {
+        Path inputFile = directory.resolve("malformed.txt");
+        Files.writeString(inputFile, "5\n0 1 3\n\n0 1\n1 2 x\n7 1 2\n1 9 2\n1 2 -4\r\n  1 2 5  \r\n"
+                + "2 3 2147483648\n2 3 +2\n3 4 4 4\n2 2 1\n0 4 7");
+        String filename = inputFile.toString();
+
+        FlowTopology expected = Parser.parseFlowTopology(filename);
+        String expectedWarnings = captureOutput(() -> Parser.parseFlowTopology(filename));
+
+        for (int ranges = 1; ranges <= 8; ranges++) {
+            FlowTopology[] actual = new FlowTopology[1];
+            int rangeCount = ranges;
+            String actualWarnings = captureOutput(() -> actual[0] = ParallelParser.parseFlowTopology(filename, rangeCount));
+
+            assertEquals(expectedWarnings, actualWarnings, "Warnings differ with " + ranges + " ranges");
+            assertSameTopology(expected, actual[0]);
+        }
+    }
+
+    private static void assertSameTopology(FlowTopology expected, FlowTopology actual) {
+        assertEquals(expected.getNumberOfNodes(), actual.getNumberOfNodes());
+        assertEquals(expected.getNumberOfEdges(), actual.getNumberOfEdges());
+        for (int node = 0; node <= expected.getNumberOfNodes(); node++) {
+            assertEquals(expected.getFirstEdge(node), actual.getFirstEdge(node));
+        }
+        for (int edge = 0; edge < expected.getNumberOfEdges(); edge++) {
+            assertEquals(expected.getTargetNode(edge), actual.getTargetNode(edge));
+            assertEquals(expected.getCapacity(edge), actual.getCapacity(edge));
+            assertEquals(expected.getReverseEdge(edge), actual.getReverseEdge(edge));
+        }
+    }
+
+    private static String captureOutput(ParseAction action) throws Exception {
+        PrintStream original = System.out;
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        System.setOut(new PrintStream(output));
+        try {
+            action.run();
+        } finally {
+            System.setOut(original);
+        }
+        return output.toString();
+    }
+
+    private interface ParseAction {
+        void run() throws Exception;
+    }
+}
@@ -0,0 +1,112 @@
+/**
+ * Measures the effect of node reordering on maximum flow solve time
+ * Author: Soshan Wijayarathne
+ * IIT id: 20230427
+ * UOW id: w2051662
+ */
+package com.algo.network.flow.benchmark;
+
+import com.algo.network.flow.algorithm.MaxFlowQueryEngine;
+import com.algo.network.flow.network.FlowNetwork;
+import com.algo.network.flow.network.FlowState;
+import com.algo.network.flow.network.FlowTopology;
+import com.algo.network.flow.network.NodeReordering;
+import com.algo.network.flow.parser.Parser;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * The ReorderingBenchmark class times the Edmonds-Karp solve on the same network under different node orders:
+ * the order of the input file, a random order (standing in for a producer with no useful order), and the random
+ * order renumbered again by BFS order and by reverse Cuthill-McKee.
+ * <p>
+ * The JVM cannot read hardware counters, so cache misses are measured by running this class under
+ * {@code perf stat -e cache-misses,cache-references} with a single order selected, e.g.
+ * {@code java -cp target/classes:target/test-classes com.algo.network.flow.benchmark.ReorderingBenchmark shuffled+rcm input/bridge_15.txt}.
+ * <p>
+ * It lives with the test sources so it is not packaged with the application; build it with {@code mvn test-compile}.
+ * <p>
+ * Usage: {@code ReorderingBenchmark [order|all] [files...]}
+ */
+public class ReorderingBenchmark {
+
+    private static final String[] DEFAULT_FILES = {
+            "input/bridge_14.txt", "input/bridge_15.txt", "input/ladder_14.txt", "input/ladder_15.txt"
+    };
+    private static final int WARMUP_RUNS = 1;
+    private static final int MEASURED_RUNS = 3;
+    private static final long SHUFFLE_SEED = 20230427L;
+
+    /**
+     * Runs the benchmark
+     *
+     * @param args the order to run (or "all") followed by the input files
+     * @throws IOException if an input file cannot be read
+     */
+    public static void main(String[] args) throws IOException {
+        String selectedOrder = args.length > 0 ? args[0] : "all";
+        String[] files = args.length > 1 ? Arrays.copyOfRange(args, 1, args.length) : DEFAULT_FILES;
+
+        for (String filename : files) {
+            FlowNetwork network = Parser.parseFlowNetwork(filename);
+            System.out.println("\n" + filename + " (" + network.getNumberOfNodes() + " nodes)");
+
+            for (Map.Entry<String, FlowNetwork> entry : buildOrders(network).entrySet()) {
+                if (!selectedOrder.equals("all") && !selectedOrder.equals(entry.getKey())) {
+                    continue;
+                }
+                FlowNetwork ordered = entry.getValue();
+                FlowState state = new FlowState(FlowTopology.fromNetwork(ordered));
+
+                int maxFlow = 0;
+                for (int run = 0; run < WARMUP_RUNS; run++) {
+                    maxFlow = MaxFlowQueryEngine.computeMaximumFlow(state, ordered.getSourceNode(), ordered.getSinkNode());
+                }
+                long[] times = new long[MEASURED_RUNS];
+                for (int run = 0; run < MEASURED_RUNS; run++) {
+                    long start = System.nanoTime();
+                    MaxFlowQueryEngine.computeMaximumFlow(state, ordered.getSourceNode(), ordered.getSinkNode());
+                    times[run] = System.nanoTime() - start;
+                }
+                Arrays.sort(times);
+                System.out.printf("  %-14s max flow %-8d median %8.2f ms%n",
+                        entry.getKey(), maxFlow, times[MEASURED_RUNS / 2] / 1_000_000.0);
+            }
+        }
+    }
+
+    /**
+     * Builds every benchmarked order of the network
+     */
+    private static Map<String, FlowNetwork> buildOrders(FlowNetwork network) {
+        Map<String, FlowNetwork> orders = new LinkedHashMap<>();
+        orders.put("input", network);
+        orders.put("bfs", NodeReordering.breadthFirstOrder(network).apply(network));
+        orders.put("rcm", NodeReordering.reverseCuthillMcKee(network).apply(network));
+
+        FlowNetwork shuffled = shuffle(network);
+        orders.put("shuffled", shuffled);
+        orders.put("shuffled+bfs", NodeReordering.breadthFirstOrder(shuffled).apply(shuffled));
+        orders.put("shuffled+rcm", NodeReordering.reverseCuthillMcKee(shuffled).apply(shuffled));
+        return orders;
+    }
+
+    private static FlowNetwork shuffle(FlowNetwork network) {
+        int[] order = new int[network.getNumberOfNodes()];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+        Random random = new Random(SHUFFLE_SEED);
+        for (int i = order.length - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int swap = order[i];
+            order[i] = order[j];
+            order[j] = swap;
+        }
+        return NodeReordering.fromOrder(order).apply(network);
+    }
+}